@@ -19,15 +19,25 @@ public class AcyclicLongestPaths {
      * @throws IllegalArgumentException if the graph is not a DAG
      */
     public AcyclicLongestPaths(Digraph G, int source) {
+        this(G, source, Topological.orderOf(G));
+    }
+
+    /**
+     * {@code AcyclicLongestPaths} - Constructor. Same as above, but relaxes the vertices in the given topological {@code order}
+     * instead of computing one, e.g. an order maintained by the caller.
+     * @param G The digraph
+     * @param source source vertex of the SPT
+     * @param order all vertices of {@code G} in topological order, {@code null} if there is none
+     * @throws IllegalArgumentException if the graph is not a DAG
+     */
+    public AcyclicLongestPaths(Digraph G, int source, Iterable<Integer> order) {
         if (G == null) throw new IllegalArgumentException("Graph cannot be null");
 
         size = G.V();
 
         validateVertex(source);
 
-        Topological topological = new Topological(G);
-
-        if (!topological.hasOrder()) throw new IllegalArgumentException("Graph must be a DAG");
+        if (order == null) throw new IllegalArgumentException("Graph must be a DAG");
 
         this.distTo = new double[size];
         this.edgeTo = new DirectedEdge[size];
@@ -37,7 +47,7 @@ public class AcyclicLongestPaths {
         distTo[source] = 0.0;
         edgeTo[source] = null;
 
-        for (int v : topological.order()) {
+        for (int v : order) {
             relax(G, v);
         }
     }
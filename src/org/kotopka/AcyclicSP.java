@@ -6,7 +6,7 @@ import java.util.Arrays;
  * {@code AcyclicSP} - Finds shortest-paths-tree in acyclic edge-weighted digraphs based on traversing the
  * nodes in topological order. Note: the graph MUST be a DAG.
  */
-public class AcyclicSP {
+public class AcyclicSP implements ShortestPathTree {
 
     private final int size;
     private final double[] distTo;
@@ -19,15 +19,25 @@ public class AcyclicSP {
      * @throws IllegalArgumentException if the graph is not a DAG
      */
     public AcyclicSP(Digraph G, int source) {
+        this(G, source, Topological.orderOf(G));
+    }
+
+    /**
+     * {@code AcyclicSP} - Constructor. Same as above, but relaxes the vertices in the given topological {@code order}
+     * instead of computing one, e.g. an order maintained by the caller.
+     * @param G The digraph
+     * @param source source vertex of the SPT
+     * @param order all vertices of {@code G} in topological order, {@code null} if there is none
+     * @throws UnsupportedOperationException if the graph is not a DAG
+     */
+    public AcyclicSP(Digraph G, int source, Iterable<Integer> order) {
         if (G == null) throw new IllegalArgumentException("Graph cannot be null");
 
         size = G.V();
 
         validateVertex(source);
 
-        Topological topological = new Topological(G);
-
-        if (!topological.hasOrder()) throw new UnsupportedOperationException("Graph must be a DAG");
+        if (order == null) throw new UnsupportedOperationException("Graph must be a DAG");
 
         this.distTo = new double[size];
         this.edgeTo = new DirectedEdge[size];
@@ -37,7 +47,7 @@ public class AcyclicSP {
         distTo[source] = 0.0;
         edgeTo[source] = null;
 
-        for (int v : topological.order()) {
+        for (int v : order) {
             relax(G, v);
         }
     }
@@ -59,18 +69,33 @@ public class AcyclicSP {
         if (vertex < 0 || vertex >= size) throw new IllegalArgumentException("Invalid vertex " + vertex);
     }
 
+    @Override
     public boolean hasPathTo(int v) {
         validateVertex(v);
 
         return distTo[v] < Double.POSITIVE_INFINITY;
     }
 
+    @Override
     public double distTo(int v) {
         validateVertex(v);
 
         return distTo[v];
     }
 
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return edgeTo[v];
+    }
+
+    @Override
     public Iterable<DirectedEdge> pathTo(int v) {
         validateVertex(v);
 
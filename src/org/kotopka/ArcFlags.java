@@ -0,0 +1,243 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * {@code ArcFlags} - Goal-directed point-to-point search with arc flags. The vertices are partitioned into {@code k}
+ * cells and every edge carries one flag per cell, set if the edge starts a shortest path into that cell. A query to
+ * a target in cell {@code c} only follows edges flagged for {@code c}, which prunes most of the graph that leads
+ * away from the target. <br>
+ * Flags of cell {@code c} are computed with one backward search from each boundary vertex of {@code c} (a vertex of
+ * {@code c} with an edge from outside it): every edge of its reverse shortest-paths tree is flagged, as are all edges
+ * inside {@code c}. Cells are processed in parallel, each into its own {@code BitSet}, which are merged into a single
+ * {@code long[]} holding the flags of edge {@code e} at {@code e * words()}. <br>
+ * Unlike a contraction hierarchy, no shortcuts are added: queries run on the original edges, and the flags of each
+ * cell are computed independently of the other cells.
+ */
+public class ArcFlags {
+
+    private final CompactDigraph G;
+    private final int k;
+    private final int[] cell;
+    private final int words;    // longs per edge
+    private final long[] flags;
+
+    /**
+     * {@code ArcFlags} Constructor. Partitions the vertices into {@code k} cells around spread out seed vertices.
+     * @param G the digraph, edge weights must be non-negative
+     * @param k number of cells
+     */
+    public ArcFlags(Digraph G, int k) {
+        this(G, partition(CompactDigraph.of(G), k), k);
+    }
+
+    /**
+     * {@code ArcFlags} Constructor.
+     * @param G the digraph, edge weights must be non-negative
+     * @param cell the cell of each vertex, between {@code 0} and {@code k - 1}
+     * @param k number of cells
+     */
+    public ArcFlags(Digraph G, int[] cell, int k) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (k <= 0) throw new IllegalArgumentException("Need at least one cell");
+        if (cell == null || cell.length != G.V()) throw new IllegalArgumentException("Need a cell for every vertex");
+
+        for (int c : cell) {
+            if (c < 0 || c >= k) throw new IllegalArgumentException("Invalid cell " + c);
+        }
+
+        this.G = CompactDigraph.of(G);
+        this.k = k;
+        this.cell = cell.clone();
+        this.words = (k + 63) >>> 6;
+
+        CompactDigraph reverse = this.G.reverse();
+        ThreadLocal<DijkstraWorkspace> workspaces = ThreadLocal.withInitial(() -> new DijkstraWorkspace(reverse));
+
+        BitSet[] cellFlags = IntStream.range(0, k).parallel()
+                .mapToObj(c -> flagCell(c, reverse, workspaces.get()))
+                .toArray(BitSet[]::new);
+
+        this.flags = new long[this.G.E() * words];
+
+        for (int c = 0; c < k; c++) {
+            int word = c >>> 6;
+            long bit = 1L << (c & 63);
+
+            for (int e = cellFlags[c].nextSetBit(0); e >= 0; e = cellFlags[c].nextSetBit(e + 1)) {
+                flags[e * words + word] |= bit;
+            }
+        }
+    }
+
+    private BitSet flagCell(int c, CompactDigraph reverse, DijkstraWorkspace workspace) {
+        BitSet flagged = new BitSet(G.E());
+
+        for (int v = 0; v < G.V(); v++) {
+            for (int e = G.start(v); e < G.end(v); e++) {
+                if (cell[v] == c && cell[G.to(e)] == c) flagged.set(e);
+            }
+        }
+
+        for (int b = 0; b < G.V(); b++) {
+            if (cell[b] != c || !isBoundary(reverse, b)) continue;
+
+            workspace.solve(b);     // distances to b
+
+            // tree edges of the search are exactly the tight ones: distTo(v) == weight + distTo(w)
+            for (int v = 0; v < G.V(); v++) {
+                if (!workspace.hasPathTo(v)) continue;
+
+                for (int e = G.start(v); e < G.end(v); e++) {
+                    if (workspace.distTo(G.to(e)) + G.weight(e) == workspace.distTo(v)) flagged.set(e);
+                }
+            }
+        }
+
+        return flagged;
+    }
+
+    // b has an incoming edge from another cell
+    private boolean isBoundary(CompactDigraph reverse, int b) {
+        for (int e = reverse.start(b); e < reverse.end(b); e++) {
+            if (cell[reverse.to(e)] != cell[b]) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * {@code partition()} - Splits the vertices into {@code k} cells: seeds are chosen one at a time, each the vertex
+     * farthest from (or unreachable from) the seeds so far, and every vertex joins the cell of its nearest seed.
+     * Vertices no seed reaches join cell {@code 0}. Every cell holds at least its seed.
+     * @param G the digraph
+     * @param k number of cells, at most {@code V}
+     * @return the cell of each vertex
+     */
+    public static int[] partition(CompactDigraph G, int k) {
+        if (k <= 0 || k > G.V()) throw new IllegalArgumentException("Invalid number of cells " + k);
+
+        int[] seeds = new int[k];
+        int[] seedCell = new int[G.V()];
+        boolean[] isSeed = new boolean[G.V()];
+        MultiSourceDijkstraSP sp = null;
+
+        for (int i = 0; i < k; i++) {
+            if (i > 0) {
+                int farthest = -1;
+
+                // skipping the seeds, as all distances may be 0, e.g. with zero-weight edges or k close to V
+                for (int v = 0; v < G.V(); v++) {
+                    if (!isSeed[v] && (farthest == -1 || sp.distTo(v) > sp.distTo(farthest))) farthest = v;
+                }
+
+                seeds[i] = farthest;
+            }
+
+            isSeed[seeds[i]] = true;
+            seedCell[seeds[i]] = i;
+            sp = new MultiSourceDijkstraSP(G, Arrays.copyOf(seeds, i + 1));
+        }
+
+        int[] cell = new int[G.V()];
+
+        for (int v = 0; v < G.V(); v++) {
+            cell[v] = sp.owner(v) == -1 ? 0 : seedCell[sp.owner(v)];
+        }
+
+        // a seed at distance 0 from an earlier seed may be owned by it, every cell keeps at least its seed
+        for (int i = 0; i < k; i++) cell[seeds[i]] = i;
+
+        return cell;
+    }
+
+    public int cells() { return k; }
+
+    public int cell(int v) {
+        if (v < 0 || v >= G.V()) throw new IllegalArgumentException("Invalid vertex " + v);
+
+        return cell[v];
+    }
+
+    /**
+     * {@code words()} - Number of longs holding the flags of one edge.
+     * @return longs per edge
+     */
+    public int words() { return words; }
+
+    /**
+     * {@code isFlagged()} - Whether edge {@code e} of {@code graph()} starts a shortest path into cell {@code c}.
+     * @param e edge index
+     * @param c cell
+     * @return {@code true} if the flag is set
+     */
+    public boolean isFlagged(int e, int c) {
+        return (flags[e * words + (c >>> 6)] & 1L << (c & 63)) != 0;
+    }
+
+    public CompactDigraph graph() { return G; }
+
+    /**
+     * {@code newWorkspace()} - A workspace for {@code solve()}, to be reused across queries by one thread.
+     * @return a new workspace over {@code graph()}
+     */
+    public DijkstraWorkspace newWorkspace() { return new DijkstraWorkspace(G); }
+
+    /**
+     * {@code solve()} - Shortest path from {@code source} to {@code target}, following flagged edges only. Afterwards
+     * {@code workspace} holds the distance and path to {@code target}.
+     * @param workspace workspace from {@code newWorkspace()}
+     * @param source source vertex
+     * @param target destination vertex
+     * @return the distance, {@code Double.POSITIVE_INFINITY} if there is no path
+     */
+    public double solve(DijkstraWorkspace workspace, int source, int target) {
+        if (workspace.graph() != G) throw new IllegalArgumentException("Workspace is for another graph");
+
+        workspace.solve(source, target, flags, words, cell(target));
+
+        return workspace.distTo(target);
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        CompactDigraph G = CompactDigraph.of(GraphLoader.load(args[0]));
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        long start = System.nanoTime();
+        ArcFlags arcFlags = new ArcFlags(G, k);
+        long built = System.nanoTime() - start;
+
+        DijkstraWorkspace plain = new DijkstraWorkspace(G);
+        DijkstraWorkspace flagged = arcFlags.newWorkspace();
+        Random random = new Random(5);
+        int queries = 10_000;
+        long plainReached = 0;
+        long flaggedReached = 0;
+        int mismatches = 0;
+
+        for (int i = 0; i < queries; i++) {
+            int s = random.nextInt(G.V());
+            int t = random.nextInt(G.V());
+
+            plain.solve(s, t);
+            arcFlags.solve(flagged, s, t);
+
+            if (Math.abs(plain.distTo(t) - flagged.distTo(t)) > 1e-9) mismatches++;
+
+            plainReached += plain.reached();
+            flaggedReached += flagged.reached();
+        }
+
+        System.out.printf("%d cells, flags built in %d ms (%d bytes)%n", k, built / 1_000_000, 8L * arcFlags.flags.length);
+        System.out.printf("Vertices reached per query: Dijkstra %.1f, arc flags %.1f; %d mismatches in %d queries%n",
+                (double) plainReached / queries, (double) flaggedReached / queries, mismatches, queries);
+    }
+}
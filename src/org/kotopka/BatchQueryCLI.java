@@ -0,0 +1,238 @@
+package org.kotopka;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * {@code BatchQueryCLI} - Answers a batch of (source, target) distance queries, e.g. millions of them from a file, for
+ * offline jobs. <br>
+ * Queries are grouped by source with a counting sort, and each distinct source is solved once with a
+ * {@link DijkstraWorkspace} that stops as soon as all of that source's targets are settled. The groups run in
+ * parallel, so the work is bounded by the number of distinct sources rather than the number of queries. <br>
+ * Input is whitespace separated {@code source target} pairs. Output keeps the input order, written through a
+ * buffered NIO channel either as text lines {@code source target distance} or as binary records of
+ * {@code int source, int target, double distance} (big-endian). Unreachable targets have distance
+ * {@code Infinity}.
+ */
+public class BatchQueryCLI {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] INFINITY = "Infinity".getBytes(StandardCharsets.US_ASCII);
+
+    private final CompactDigraph G;
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] distances;
+    private int distinctSources;
+
+    /**
+     * {@code BatchQueryCLI} Constructor. Reads all queries; call {@code solve()} to answer them.
+     * @param G the digraph, edge weights must be non-negative
+     * @param in the queries, whitespace separated {@code source target} pairs
+     * @throws IllegalArgumentException if a query names a vertex not in {@code G}
+     */
+    public BatchQueryCLI(CompactDigraph G, InputStream in) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        FastReader reader = new FastReader(in);
+        int[] sources = new int[1024];
+        int[] targets = new int[1024];
+        int n = 0;
+
+        while (reader.hasNext()) {
+            if (n == sources.length) {
+                sources = Arrays.copyOf(sources, n << 1);
+                targets = Arrays.copyOf(targets, n << 1);
+            }
+
+            sources[n] = validateVertex(G, reader.nextInt());
+            targets[n] = validateVertex(G, reader.nextInt());
+            n++;
+        }
+
+        this.G = G;
+        this.sources = Arrays.copyOf(sources, n);
+        this.targets = Arrays.copyOf(targets, n);
+        this.distances = new double[n];
+    }
+
+    private static int validateVertex(CompactDigraph G, int vertex) {
+        if (vertex < 0 || vertex >= G.V()) throw new IllegalArgumentException("Invalid vertex " + vertex);
+
+        return vertex;
+    }
+
+    /**
+     * {@code solve()} - Answers all queries, one single-source search per distinct source.
+     */
+    public void solve() {
+        int V = G.V();
+        int n = sources.length;
+
+        // counting sort of the query indices by source
+        int[] groupStart = new int[V + 1];
+
+        for (int q = 0; q < n; q++) groupStart[sources[q] + 1]++;
+
+        for (int v = 0; v < V; v++) groupStart[v + 1] += groupStart[v];
+
+        int[] next = Arrays.copyOf(groupStart, V);
+        int[] order = new int[n];
+        int[] groupedTargets = new int[n];
+
+        for (int q = 0; q < n; q++) {
+            int i = next[sources[q]]++;
+            order[i] = q;
+            groupedTargets[i] = targets[q];
+        }
+
+        int[] distinct = IntStream.range(0, V).filter(v -> groupStart[v + 1] > groupStart[v]).toArray();
+        ThreadLocal<DijkstraWorkspace> workspaces = ThreadLocal.withInitial(() -> new DijkstraWorkspace(G));
+
+        this.distinctSources = distinct.length;
+
+        Arrays.stream(distinct).parallel().forEach(s -> {
+            DijkstraWorkspace workspace = workspaces.get();
+
+            workspace.solve(s, groupedTargets, groupStart[s], groupStart[s + 1]);
+
+            for (int i = groupStart[s]; i < groupStart[s + 1]; i++) {
+                distances[order[i]] = workspace.distTo(groupedTargets[i]);
+            }
+        });
+    }
+
+    public int queries() { return sources.length; }
+
+    public int distinctSources() { return distinctSources; }
+
+    public double distance(int query) {
+        if (query < 0 || query >= distances.length) throw new IllegalArgumentException("Invalid query " + query);
+
+        return distances[query];
+    }
+
+    /**
+     * {@code write()} - Writes the answers in input order.
+     * @param out the channel to write to, not closed
+     * @param binary {@code true} for fixed size binary records, {@code false} for text lines
+     * @throws IOException if writing fails
+     */
+    public void write(WritableByteChannel out, boolean binary) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        for (int q = 0; q < distances.length; q++) {
+            if (buffer.remaining() < 64) drain(out, buffer);
+
+            if (binary) {
+                buffer.putInt(sources[q]).putInt(targets[q]).putDouble(distances[q]);
+            } else {
+                appendLong(buffer, sources[q]);
+                buffer.put((byte) ' ');
+                appendLong(buffer, targets[q]);
+                buffer.put((byte) ' ');
+                appendDistance(buffer, distances[q]);
+                buffer.put((byte) '\n');
+            }
+        }
+
+        drain(out, buffer);
+    }
+
+    private static void drain(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) out.write(buffer);
+
+        buffer.clear();
+    }
+
+    // fixed point with 5 decimals, like %.5f, for distances that fit a long once scaled
+    private static void appendDistance(ByteBuffer buffer, double distance) {
+        if (distance == Double.POSITIVE_INFINITY) {
+            buffer.put(INFINITY);
+            return;
+        }
+
+        if (distance < 0 || distance >= 1e13) {
+            buffer.put(Double.toString(distance).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+
+        long scaled = Math.round(distance * 1e5);
+        long fraction = scaled % 100_000;
+
+        appendLong(buffer, scaled / 100_000);
+        buffer.put((byte) '.');
+
+        for (long unit = 10_000; unit > 0; unit /= 10) {
+            buffer.put((byte) ('0' + fraction / unit % 10));
+        }
+    }
+
+    private static void appendLong(ByteBuffer buffer, long value) {
+        int digits = 1;
+
+        for (long v = value; v >= 10; v /= 10) digits++;
+
+        int end = buffer.position() + digits;
+
+        for (int i = end - 1; i >= end - digits; i--, value /= 10) {
+            buffer.put(i, (byte) ('0' + value % 10));
+        }
+
+        buffer.position(end);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.out.println("Usage: BatchQueryCLI <graph> [queries|-] [output|-] [text|binary]");
+            System.exit(-1);
+        }
+
+        String queries = args.length > 1 ? args[1] : "-";
+        String output = args.length > 2 ? args[2] : "-";
+        boolean binary = args.length > 3 && args[3].equals("binary");
+
+        long start = System.nanoTime();
+        CompactDigraph G = GraphLoader.loadCompact(args[0]);
+        long loaded = System.nanoTime();
+
+        BatchQueryCLI batch;
+
+        try (InputStream in = queries.equals("-") ? System.in : new FileInputStream(queries)) {
+            batch = new BatchQueryCLI(G, in);
+        }
+
+        long read = System.nanoTime();
+
+        batch.solve();
+
+        long solved = System.nanoTime();
+
+        if (output.equals("-")) {
+            batch.write(Channels.newChannel(System.out), binary);
+            System.out.flush();
+        } else {
+            try (FileChannel out = FileChannel.open(Paths.get(output), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                batch.write(out, binary);
+            }
+        }
+
+        System.err.printf("%d queries, %d distinct sources: load %d ms, read %d ms, solve %d ms, write %d ms%n",
+                batch.queries(), batch.distinctSources(), (loaded - start) / 1_000_000, (read - loaded) / 1_000_000,
+                (solved - read) / 1_000_000, (System.nanoTime() - solved) / 1_000_000);
+    }
+}
@@ -3,7 +3,7 @@ package org.kotopka;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
 
-public class BellmanFordSP {
+public class BellmanFordSP implements ShortestPathTree {
 
     private final int size;
     private final double[] distTo;
@@ -71,18 +71,33 @@ public class BellmanFordSP {
         if (vertex < 0 || vertex >= size) throw new IllegalArgumentException("Invalid vertex " + vertex);
     }
 
+    @Override
     public double distTo(int v) {
         validateVertex(v);
 
         return distTo[v];
     }
 
+    @Override
     public boolean hasPathTo(int v) {
         validateVertex(v);
 
         return distTo[v] < Double.POSITIVE_INFINITY;
     }
 
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return edgeTo[v];
+    }
+
+    @Override
     public Iterable<DirectedEdge> pathTo(int v) {
         validateVertex(v);
         if (hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
@@ -96,6 +111,7 @@ public class BellmanFordSP {
         return path;
     }
 
+    @Override
     public boolean hasNegativeCycle() {
         return cycle != null;
     }
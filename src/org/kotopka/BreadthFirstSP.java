@@ -0,0 +1,243 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * {@code BreadthFirstSP} - Shortest paths by breadth-first search, for digraphs whose edges all have the same
+ * non-negative weight (including unweighted digraphs built with {@code DirectedEdge(v, w)}): the distance of a vertex
+ * is its number of hops times that weight, so no priority queue is needed. <br>
+ * Direction-optimizing: each level either expands the frontier's out-edges (top-down), or lets every unreached vertex
+ * look for an in-neighbour on the frontier (bottom-up), which stops at the first hit and wins once the frontier
+ * touches a large part of the digraph. Bottom-up levels run in parallel blocks of vertices, each writing only its
+ * own vertices; top-down levels have small frontiers by construction and run sequentially.
+ */
+public class BreadthFirstSP implements ShortestPathTree {
+
+    private static final int ALPHA = 14;            // bottom-up once frontier edges > unreached in-edges / ALPHA
+    private static final int BETA = 24;             // back to top-down once frontier size < V / BETA
+    private static final int VERTEX_BLOCK = 1 << 12;
+
+    private final int V;
+    private final double weight;
+    private final int[] level;      // number of hops from the source, -1 if unreached
+    private final int[] parent;
+    private final double[] distTo;
+    private int bottomUpLevels;
+
+    /**
+     * {@code BreadthFirstSP} Constructor.
+     * @param G the digraph, all edges with the same non-negative weight
+     * @param source source vertex
+     */
+    public BreadthFirstSP(Digraph G, int source) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        CompactDigraph forward = CompactDigraph.of(G);
+
+        this.V = forward.V();
+
+        validateVertex(source);
+
+        this.weight = forward.E() == 0 ? 0.0 : forward.weight(0);
+
+        if (weight < 0.0) throw new IllegalArgumentException("Negative edge weight " + weight);
+
+        for (int e = 0; e < forward.E(); e++) {
+            if (forward.weight(e) != weight) throw new IllegalArgumentException("Edge weights are not uniform");
+        }
+
+        this.level = new int[V];
+        this.parent = new int[V];
+        this.distTo = new double[V];
+
+        Arrays.fill(level, -1);
+        Arrays.fill(parent, -1);
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+
+        level[source] = 0;
+        distTo[source] = 0.0;
+
+        CompactDigraph backward = null;     // built on the first bottom-up level
+        int[] frontier = new int[V];
+        int[] next = new int[V];
+        int size = 1;
+        int[] inDegree = new int[V];
+        long unreachedEdges = forward.E();  // in-edges of unreached vertices, the cost of a bottom-up level
+        boolean bottomUp = false;
+
+        for (int e = 0; e < forward.E(); e++) inDegree[forward.to(e)]++;
+
+        unreachedEdges -= inDegree[source];
+        frontier[0] = source;
+
+        for (int depth = 0; size > 0; depth++) {
+            long frontierEdges = 0;
+
+            for (int i = 0; i < size; i++) frontierEdges += forward.end(frontier[i]) - forward.start(frontier[i]);
+
+            if (!bottomUp && frontierEdges * ALPHA > unreachedEdges) bottomUp = true;
+            else if (bottomUp && (long) size * BETA < V) bottomUp = false;
+
+            int nextSize = 0;
+
+            if (bottomUp) {
+                if (backward == null) backward = forward.reverse();
+
+                CompactDigraph in = backward;
+                int d = depth;
+                int blocks = (V + VERTEX_BLOCK - 1) / VERTEX_BLOCK;
+
+                IntStream.range(0, blocks).parallel().forEach(block -> bottomUpBlock(in, d, block));
+
+                for (int w = 0; w < V; w++) {
+                    if (level[w] == depth + 1) next[nextSize++] = w;
+                }
+
+                bottomUpLevels++;
+            } else {
+                for (int i = 0; i < size; i++) {
+                    int v = frontier[i];
+
+                    for (int e = forward.start(v); e < forward.end(v); e++) {
+                        int w = forward.to(e);
+
+                        if (level[w] == -1) {
+                            reach(w, v, depth + 1);
+                            next[nextSize++] = w;
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < nextSize; i++) unreachedEdges -= inDegree[next[i]];
+
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            size = nextSize;
+        }
+    }
+
+    // every unreached vertex of the block takes the first in-neighbour found at the given depth as its parent
+    private void bottomUpBlock(CompactDigraph backward, int depth, int block) {
+        int end = Math.min(V, (block + 1) * VERTEX_BLOCK);
+
+        for (int w = block * VERTEX_BLOCK; w < end; w++) {
+            if (level[w] != -1) continue;
+
+            for (int e = backward.start(w); e < backward.end(w); e++) {
+                int v = backward.to(e);
+
+                // other blocks only write depth + 1, never depth, so racing reads are harmless
+                if (level[v] == depth) {
+                    reach(w, v, depth + 1);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void reach(int w, int v, int depth) {
+        level[w] = depth;
+        parent[w] = v;
+        distTo[w] = distTo[v] + weight;
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    @Override
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    @Override
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return level[v] != -1;
+    }
+
+    /**
+     * {@code hops()} - Number of edges on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return number of edges, {@code -1} if there is no path
+     */
+    public int hops(int v) {
+        validateVertex(v);
+
+        return level[v];
+    }
+
+    // parent of v in the BFS tree, -1 for the source and unreachable vertices
+    int parent(int v) { return parent[v]; }
+
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return parent[v] == -1 ? null : new DirectedEdge(parent[v], v, weight);
+    }
+
+    @Override
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+
+        if (! hasPathTo(v)) return null;
+
+        Stack<DirectedEdge> path = new Stack<>();
+
+        for (DirectedEdge e = edgeTo(v); e != null; e = edgeTo(e.from())) {
+            path.push(e);
+        }
+
+        return path;
+    }
+
+    /**
+     * {@code bottomUpLevels()} - Number of levels searched bottom-up.
+     * @return bottom-up levels
+     */
+    public int bottomUpLevels() { return bottomUpLevels; }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        // the digraph of the file with every weight set to 1
+        EdgeWeightedDigraph weighted = GraphLoader.load(args[0]);
+        EdgeWeightedDigraph ewd = new EdgeWeightedDigraph(weighted.V());
+
+        for (DirectedEdge e : weighted.edges()) ewd.addEdge(new DirectedEdge(e.from(), e.to(), 1.0));
+
+        for (int r = 0; r < 5; r++) {
+            long start = System.nanoTime();
+            BreadthFirstSP bfs = new BreadthFirstSP(ewd, 0);
+            long bfsTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            MultiSourceDijkstraSP heap = new MultiSourceDijkstraSP(ewd, new int[] { 0 });
+            long heapTime = System.nanoTime() - start;
+
+            double maxDifference = 0.0;
+
+            for (int v = 0; v < ewd.V(); v++) {
+                if (bfs.hasPathTo(v) != heap.hasPathTo(v)) maxDifference = Double.NaN;
+                else if (bfs.hasPathTo(v)) maxDifference = Math.max(maxDifference, Math.abs(bfs.distTo(v) - heap.distTo(v)));
+            }
+
+            System.out.printf("BreadthFirstSP %6d us (%d bottom-up levels), heap Dijkstra %6d us, max difference %.2g%n",
+                    bfsTime / 1000, bfs.bottomUpLevels(), heapTime / 1000, maxDifference);
+        }
+    }
+}
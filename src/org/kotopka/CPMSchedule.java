@@ -0,0 +1,363 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Scanner;
+
+/**
+ * {@code CPMSchedule} - Critical Path Method engine for precedence-constrained job scheduling that stays up to date
+ * while jobs, durations and precedence constraints are edited. <br>
+ * For every job it keeps the earliest start and the length of the longest chain from its start to the end of the
+ * project; latest start and slack follow from those. An edit only recomputes the jobs downstream of it (earliest
+ * starts) and upstream of it (chain lengths), visiting them in topological order maintained by a {@link DynamicDAG},
+ * so no graph is rebuilt and no full longest-paths pass is run.
+ */
+public class CPMSchedule {
+
+    private static final double EPSILON = 1e-9;
+
+    private final DynamicDAG dag;
+    private double[] duration;
+    private double[] earliestStart;
+    private double[] tail;      // longest chain of durations from the start of a job to the end of the project
+    private IndexDaryMinPQ<Double> finishTimes;     // keyed by -(earliest finish), the minimum is the project finish
+    private boolean[] queued;
+    private final PriorityQueue<Integer> downstream;    // jobs to recompute, earliest in topological order first
+    private final PriorityQueue<Integer> upstream;      // jobs to recompute, latest in topological order first
+
+    /**
+     * {@code CPMSchedule} Constructor. Creates an empty schedule.
+     */
+    public CPMSchedule() {
+        this.dag = new DynamicDAG(0);
+        this.duration = new double[16];
+        this.earliestStart = new double[16];
+        this.tail = new double[16];
+        this.finishTimes = new IndexDaryMinPQ<>(IndexDaryMinPQ.FOUR_WAY_HEAP, 16);
+        this.queued = new boolean[16];
+        this.downstream = new PriorityQueue<>((a, b) -> Integer.compare(dag.position(a), dag.position(b)));
+        this.upstream = new PriorityQueue<>((a, b) -> Integer.compare(dag.position(b), dag.position(a)));
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= duration.length) return;
+
+        int capacity = duration.length << 1;
+
+        duration = Arrays.copyOf(duration, capacity);
+        earliestStart = Arrays.copyOf(earliestStart, capacity);
+        tail = Arrays.copyOf(tail, capacity);
+        queued = new boolean[capacity];
+
+        IndexDaryMinPQ<Double> pq = new IndexDaryMinPQ<>(IndexDaryMinPQ.FOUR_WAY_HEAP, capacity);
+
+        for (int j = 0; j < dag.V(); j++) {
+            pq.insert(j, -(earliestStart[j] + duration[j]));
+        }
+
+        finishTimes = pq;
+    }
+
+    /**
+     * {@code addJob()} - Adds a job without precedence constraints.
+     * @param jobDuration the duration of the job
+     * @return the id of the new job
+     */
+    public int addJob(double jobDuration) {
+        validateDuration(jobDuration);
+        ensureCapacity(dag.V() + 1);
+
+        int j = dag.addVertex();
+
+        duration[j] = jobDuration;
+        earliestStart[j] = 0.0;
+        tail[j] = jobDuration;
+        finishTimes.insert(j, -jobDuration);
+
+        return j;
+    }
+
+    /**
+     * {@code addPrecedence()} - Requires job {@code before} to finish before job {@code after} starts.
+     * @param before the job that must finish first
+     * @param after the job that must wait
+     * @throws IllegalArgumentException if the constraint would create a cycle
+     */
+    public void addPrecedence(int before, int after) {
+        validateJob(before);
+        validateJob(after);
+
+        dag.addEdge(new DirectedEdge(before, after));
+
+        enqueue(downstream, after);
+        propagateDown();
+
+        enqueue(upstream, before);
+        propagateUp();
+    }
+
+    /**
+     * {@code removePrecedence()} - Removes the requirement that job {@code before} finishes before job {@code after}
+     * starts.
+     * @param before the job that had to finish first
+     * @param after the job that had to wait
+     * @throws IllegalArgumentException if there is no such constraint
+     */
+    public void removePrecedence(int before, int after) {
+        validateJob(before);
+        validateJob(after);
+
+        dag.removeEdge(before, after);
+
+        enqueue(downstream, after);
+        propagateDown();
+
+        enqueue(upstream, before);
+        propagateUp();
+    }
+
+    /**
+     * {@code setDuration()} - Changes the duration of a job.
+     * @param job the job
+     * @param jobDuration the new duration
+     */
+    public void setDuration(int job, double jobDuration) {
+        validateJob(job);
+        validateDuration(jobDuration);
+
+        duration[job] = jobDuration;
+        finishTimes.changeKey(job, -(earliestStart[job] + jobDuration));
+
+        for (DirectedEdge e : dag.adj(job)) {
+            enqueue(downstream, e.to());
+        }
+
+        propagateDown();
+
+        enqueue(upstream, job);
+        propagateUp();
+    }
+
+    private void enqueue(PriorityQueue<Integer> worklist, int job) {
+        if (!queued[job]) {
+            queued[job] = true;
+            worklist.add(job);
+        }
+    }
+
+    // recompute earliest starts of the queued jobs and their successors, in topological order, until they stop changing
+    private void propagateDown() {
+        while (!downstream.isEmpty()) {
+            int j = downstream.poll();
+            queued[j] = false;
+
+            double start = 0.0;
+
+            for (DirectedEdge e : dag.incoming(j)) {
+                start = Math.max(start, earliestStart[e.from()] + duration[e.from()]);
+            }
+
+            if (start == earliestStart[j]) continue;
+
+            earliestStart[j] = start;
+            finishTimes.changeKey(j, -(start + duration[j]));
+
+            for (DirectedEdge e : dag.adj(j)) {
+                enqueue(downstream, e.to());
+            }
+        }
+    }
+
+    // recompute chain lengths of the queued jobs and their predecessors, in reverse topological order, until they
+    // stop changing
+    private void propagateUp() {
+        while (!upstream.isEmpty()) {
+            int j = upstream.poll();
+            queued[j] = false;
+
+            double chain = 0.0;
+
+            for (DirectedEdge e : dag.adj(j)) {
+                chain = Math.max(chain, tail[e.to()]);
+            }
+
+            chain += duration[j];
+
+            if (chain == tail[j]) continue;
+
+            tail[j] = chain;
+
+            for (DirectedEdge e : dag.incoming(j)) {
+                enqueue(upstream, e.from());
+            }
+        }
+    }
+
+    private void validateJob(int job) {
+        if (job < 0 || job >= dag.V()) throw new IllegalArgumentException("Invalid job " + job);
+    }
+
+    private static void validateDuration(double jobDuration) {
+        if (!(jobDuration >= 0.0) || Double.isInfinite(jobDuration)) {
+            throw new IllegalArgumentException("Invalid duration " + jobDuration);
+        }
+    }
+
+    /**
+     * {@code jobs()} - The number of jobs.
+     * @return number of jobs
+     */
+    public int jobs() { return dag.V(); }
+
+    public double duration(int job) {
+        validateJob(job);
+
+        return duration[job];
+    }
+
+    /**
+     * {@code finishTime()} - The earliest time at which all jobs can be finished.
+     * @return project finish time, {@code 0.0} if there are no jobs
+     */
+    public double finishTime() {
+        return finishTimes.isEmpty() ? 0.0 : -finishTimes.minKey();
+    }
+
+    /**
+     * {@code earliestStart()} - The earliest time {@code job} can start.
+     * @param job the job
+     * @return earliest start time
+     */
+    public double earliestStart(int job) {
+        validateJob(job);
+
+        return earliestStart[job];
+    }
+
+    /**
+     * {@code latestStart()} - The latest time {@code job} can start without delaying the project.
+     * @param job the job
+     * @return latest start time
+     */
+    public double latestStart(int job) {
+        validateJob(job);
+
+        return finishTime() - tail[job];
+    }
+
+    /**
+     * {@code slack()} - How much {@code job} can be delayed without delaying the project.
+     * @param job the job
+     * @return slack, {@code 0.0} for jobs on a critical path
+     */
+    public double slack(int job) {
+        validateJob(job);
+
+        double slack = finishTime() - tail[job] - earliestStart[job];
+
+        return slack < EPSILON ? 0.0 : slack;
+    }
+
+    /**
+     * {@code isCritical()} - Returns {@code true} if {@code job} has no slack.
+     * @param job the job
+     * @return boolean {@code true} if the job is critical, {@code false} otherwise
+     */
+    public boolean isCritical(int job) { return slack(job) == 0.0; }
+
+    /**
+     * {@code criticalPath()} - A chain of critical jobs from a job starting at time 0 to a job ending at the
+     * finish time. If there are several critical paths, one of them is returned.
+     * @return the jobs on a critical path, in order
+     */
+    public Iterable<Integer> criticalPath() {
+        Queue<Integer> path = new Queue<>();
+
+        if (dag.V() == 0) return path;
+
+        int current = -1;
+
+        for (int j = 0; j < dag.V() && current < 0; j++) {
+            if (earliestStart[j] == 0.0 && isCritical(j)) current = j;
+        }
+
+        while (current >= 0) {
+            path.enqueue(current);
+
+            double end = earliestStart[current] + duration[current];
+            int next = -1;
+
+            for (DirectedEdge e : dag.adj(current)) {
+                int k = e.to();
+
+                if (isCritical(k) && Math.abs(earliestStart[k] - end) < EPSILON) {
+                    next = k;
+                    break;
+                }
+            }
+
+            current = next;
+        }
+
+        return path;
+    }
+
+    /**
+     * {@code read()} - Reads a schedule in the format used by {@link CPM}: the number of jobs, then one line per
+     * job with its duration followed by the jobs it must precede.
+     * @param scan the input
+     * @return the schedule
+     */
+    public static CPMSchedule read(Scanner scan) {
+        int n = Integer.parseInt(scan.nextLine().trim());
+        int[][] successors = new int[n][];
+        CPMSchedule schedule = new CPMSchedule();
+
+        for (int i = 0; i < n; i++) {
+            String[] a = scan.nextLine().trim().split("\\s+");
+
+            schedule.addJob(Double.parseDouble(a[0]));
+            successors[i] = new int[a.length - 1];
+
+            for (int j = 1; j < a.length; j++) {
+                successors[i][j - 1] = Integer.parseInt(a[j]);
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            for (int successor : successors[i]) {
+                schedule.addPrecedence(i, successor);
+            }
+        }
+
+        return schedule;
+    }
+
+    public static void main(String[] args) {
+        CPMSchedule schedule = read(new Scanner(System.in));
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(" job   start  latest   slack\n");
+
+        for (int j = 0; j < schedule.jobs(); j++) {
+            sb.append(String.format("%4d: %7.1f %7.1f %7.1f%n", j, schedule.earliestStart(j), schedule.latestStart(j), schedule.slack(j)));
+        }
+
+        sb.append(String.format("Finish time: %5.1f%n", schedule.finishTime()));
+        sb.append("Critical path:");
+
+        for (int j : schedule.criticalPath()) {
+            sb.append(' ').append(j);
+        }
+
+        System.out.println(sb);
+
+        if (schedule.jobs() == 0) return;
+
+        // what-if: shorten the first critical job by half
+        int first = schedule.criticalPath().iterator().next();
+        schedule.setDuration(first, schedule.duration(first) / 2);
+
+        System.out.printf("Halving job %d: finish time %5.1f%n", first, schedule.finishTime());
+    }
+}
@@ -0,0 +1,217 @@
+package org.kotopka;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code CompactDigraph} - Immutable edge-weighted digraph stored in compressed sparse row (CSR) form: the edges
+ * leaving vertex {@code v} are the entries {@code start(v)} (inclusive) to {@code end(v)} (exclusive) of two
+ * primitive arrays holding the destination vertex and the weight. <br>
+ * Uses a fraction of the memory of {@link EdgeWeightedDigraph} and, being immutable, can be shared between threads
+ * once published. {@code adj()} creates {@code DirectedEdge} objects on the fly; performance sensitive code should
+ * use the index based accessors instead.
+ */
+public class CompactDigraph implements Digraph {
+
+    private final int V;
+    private final int[] start;
+    private final int[] to;
+    private final double[] weight;
+
+    /**
+     * {@code CompactDigraph} Constructor. The arrays are taken as-is, not copied.
+     * @param V number of vertices
+     * @param start edge offsets, {@code V + 1} entries, {@code start[V]} is the number of edges
+     * @param to destination vertex of each edge
+     * @param weight weight of each edge
+     */
+    CompactDigraph(int V, int[] start, int[] to, double[] weight) {
+        if (V <= 0) throw new IllegalArgumentException("Graph must have positive number of vertices");
+        if (start.length != V + 1 || to.length != start[V] || weight.length != start[V]) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        }
+
+        this.V = V;
+        this.start = start;
+        this.to = to;
+        this.weight = weight;
+    }
+
+    /**
+     * {@code of()} - Creates a compact copy of any digraph. Edges of each vertex keep their {@code adj()} order.
+     * @param G the digraph to copy
+     * @return compact copy of {@code G}, or {@code G} itself if it already is a {@code CompactDigraph}
+     */
+    public static CompactDigraph of(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (G instanceof CompactDigraph) return (CompactDigraph) G;
+
+        int V = G.V();
+        int[] start = new int[V + 1];
+
+        for (int v = 0; v < V; v++) {
+            int degree = 0;
+
+            for (DirectedEdge ignored : G.adj(v)) degree++;
+
+            start[v + 1] = start[v] + degree;
+        }
+
+        int[] to = new int[start[V]];
+        double[] weight = new double[start[V]];
+
+        for (int v = 0; v < V; v++) {
+            int i = start[v];
+
+            for (DirectedEdge e : G.adj(v)) {
+                to[i] = e.to();
+                weight[i++] = e.weight();
+            }
+        }
+
+        return new CompactDigraph(V, start, to, weight);
+    }
+
+    /**
+     * {@code addEdge()} - Not supported, a {@code CompactDigraph} is immutable.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(DirectedEdge e) {
+        throw new UnsupportedOperationException("CompactDigraph is immutable");
+    }
+
+    @Override
+    public Iterable<DirectedEdge> adj(int v) {
+        validateVertex(v);
+
+        return () -> new EdgeIterator(v, start[v], start[v + 1]);
+    }
+
+    @Override
+    public int V() { return V; }
+
+    @Override
+    public int E() { return start[V]; }
+
+    @Override
+    public Iterable<DirectedEdge> edges() {
+        return () -> new EdgeIterator(0, 0, start[V]);
+    }
+
+    /**
+     * {@code start()} - Index of the first edge leaving {@code v}.
+     * @param v the origin vertex
+     * @return index of the first edge of {@code v}
+     */
+    public int start(int v) { return start[v]; }
+
+    /**
+     * {@code end()} - One past the index of the last edge leaving {@code v}.
+     * @param v the origin vertex
+     * @return index one past the last edge of {@code v}
+     */
+    public int end(int v) { return start[v + 1]; }
+
+    /**
+     * {@code to()} - Destination vertex of edge {@code e}.
+     * @param e edge index
+     * @return destination vertex
+     */
+    public int to(int e) { return to[e]; }
+
+    /**
+     * {@code weight()} - Weight of edge {@code e}.
+     * @param e edge index
+     * @return edge weight
+     */
+    public double weight(int e) { return weight[e]; }
+
+    /**
+     * {@code reverse()} - The digraph with every edge reversed. Edge indices are not preserved.
+     * @return the reverse digraph
+     */
+    public CompactDigraph reverse() {
+        int[] rstart = new int[V + 1];
+
+        for (int e = 0; e < start[V]; e++) {
+            rstart[to[e] + 1]++;
+        }
+
+        for (int v = 0; v < V; v++) {
+            rstart[v + 1] += rstart[v];
+        }
+
+        int[] next = new int[V];
+        int[] rto = new int[start[V]];
+        double[] rweight = new double[start[V]];
+
+        System.arraycopy(rstart, 0, next, 0, V);
+
+        for (int v = 0; v < V; v++) {
+            for (int e = start[v]; e < start[v + 1]; e++) {
+                int i = next[to[e]]++;
+                rto[i] = v;
+                rweight[i] = weight[e];
+            }
+        }
+
+        return new CompactDigraph(V, rstart, rto, rweight);
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    private class EdgeIterator implements Iterator<DirectedEdge> {
+
+        int v;
+        int i;
+        final int end;
+
+        EdgeIterator(int v, int i, int end) {
+            this.v = v;
+            this.i = i;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() { return i < end; }
+
+        @Override
+        public DirectedEdge next() {
+            if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+            while (i >= start[v + 1]) v++;   // only advances when iterating over all edges
+
+            DirectedEdge e = new DirectedEdge(v, to[i], weight[i]);
+            i++;
+
+            return e;
+        }
+    }
+
+    /**
+     * <code>toString()</code> - String representation of this graph
+     * @return String
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("[");
+
+        for (DirectedEdge e : edges()) {
+            sb.append("(").append(e).append("), ");
+        }
+
+        if (sb.length() > 2) {
+            sb.setLength(sb.length() - 2);
+        }
+
+        sb.append("]");
+
+        return sb.toString();
+    }
+
+}
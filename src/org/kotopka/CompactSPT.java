@@ -0,0 +1,249 @@
+package org.kotopka;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * {@code CompactSPT} - Immutable form of a shortest-paths tree in three primitive arrays (parent vertex, index of the
+ * tree edge within the parent's adjacency list, distance), about 16 bytes per vertex. That is not smaller than a
+ * solver's own {@code distTo} and {@code edgeTo} arrays (about 12 bytes per vertex), but it keeps no
+ * {@code DirectedEdge} alive: for digraphs that create edges on every {@code adj()} call, such as
+ * {@link DynamicDigraph.Snapshot} and {@link CompactDigraph}, a solver's {@code edgeTo} also holds a 32-byte edge per
+ * reachable vertex. <br>
+ * Paths can be read without allocating: {@code pathTo(v, buffer)} fills a caller-owned array, and
+ * {@code reversePath(v)} walks from {@code v} back to the source lazily.
+ */
+public class CompactSPT {
+
+    private final int source;
+    private final int[] parentVertex;
+    private final int[] parentEdgeIndex;
+    private final double[] distTo;
+
+    /**
+     * {@code CompactSPT} Constructor. Converts a solver result, e.g.
+     * {@code new CompactSPT(G, s, sp::edgeTo, sp::distTo)} for a {@link DijkstraSP} {@code sp}.
+     * @param G the digraph the tree was computed on
+     * @param source source vertex of the tree
+     * @param edgeTo the last edge on the path to each vertex, {@code null} for the source and unreachable vertices
+     * @param distTo the distance to each vertex
+     */
+    public CompactSPT(Digraph G, int source, IntFunction<DirectedEdge> edgeTo, IntToDoubleFunction distTo) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (source < 0 || source >= G.V()) throw new IllegalArgumentException("Invalid vertex " + source);
+
+        int V = G.V();
+        DirectedEdge[] tree = new DirectedEdge[V];
+        boolean[] isParent = new boolean[V];
+
+        this.source = source;
+        this.parentVertex = new int[V];
+        this.parentEdgeIndex = new int[V];
+        this.distTo = new double[V];
+
+        for (int v = 0; v < V; v++) {
+            DirectedEdge e = edgeTo.apply(v);
+
+            tree[v] = e;
+            this.distTo[v] = distTo.applyAsDouble(v);
+            this.parentVertex[v] = e == null ? -1 : e.from();
+            this.parentEdgeIndex[v] = -1;
+
+            if (e != null) isParent[e.from()] = true;
+        }
+
+        // one pass over the adjacency list of each parent, assigning every child the first edge that matches its
+        // tree edge; digraphs that build edges on the fly are matched by head and weight, so of identical parallel
+        // edges the first is taken
+        for (int u = 0; u < V; u++) {
+            if (!isParent[u]) continue;
+
+            int i = 0;
+
+            for (DirectedEdge f : G.adj(u)) {
+                int w = f.to();
+                DirectedEdge e = tree[w];
+
+                if (parentEdgeIndex[w] == -1 && e != null && e.from() == u
+                        && (f == e || Double.compare(f.weight(), e.weight()) == 0)) {
+                    parentEdgeIndex[w] = i;
+                }
+
+                i++;
+            }
+        }
+
+        for (int v = 0; v < V; v++) {
+            if (tree[v] != null && parentEdgeIndex[v] == -1) {
+                throw new IllegalArgumentException("Edge " + tree[v] + " is not in the graph");
+            }
+        }
+    }
+
+    /**
+     * {@code CompactSPT} Constructor. Takes ownership of the given arrays, they are not copied.
+     * @param source source vertex of the tree
+     * @param parentVertex parent of each vertex, {@code -1} for the source and unreachable vertices
+     * @param parentEdgeIndex index of the tree edge in the parent's adjacency list, {@code -1} where there is none
+     * @param distTo the distance to each vertex
+     */
+    CompactSPT(int source, int[] parentVertex, int[] parentEdgeIndex, double[] distTo) {
+        this.source = source;
+        this.parentVertex = parentVertex;
+        this.parentEdgeIndex = parentEdgeIndex;
+        this.distTo = distTo;
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= parentVertex.length) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    public int source() { return source; }
+
+    public int V() { return parentVertex.length; }
+
+    public double distTo(int v) {
+        validateVertex(v);
+
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * {@code parent()} - The vertex before {@code v} on the shortest path from the source.
+     * @param v the vertex
+     * @return the parent of {@code v}, {@code -1} for the source and for unreachable vertices
+     */
+    public int parent(int v) {
+        validateVertex(v);
+
+        return parentVertex[v];
+    }
+
+    /**
+     * {@code parentEdgeIndex()} - Position of the tree edge into {@code v} within {@code adj(parent(v))}. For a
+     * {@link CompactDigraph} the edge index is {@code start(parent(v)) + parentEdgeIndex(v)}.
+     * @param v the vertex
+     * @return index of the edge, {@code -1} for the source and for unreachable vertices
+     */
+    public int parentEdgeIndex(int v) {
+        validateVertex(v);
+
+        return parentEdgeIndex[v];
+    }
+
+    /**
+     * {@code edgeTo()} - Looks up the tree edge into {@code v} in the digraph the tree was computed on.
+     * @param G the digraph
+     * @param v the vertex
+     * @return the last edge on the path to {@code v}, {@code null} for the source and for unreachable vertices
+     */
+    public DirectedEdge edgeTo(Digraph G, int v) {
+        validateVertex(v);
+
+        if (parentVertex[v] == -1) return null;
+
+        int i = 0;
+
+        for (DirectedEdge e : G.adj(parentVertex[v])) {
+            if (i++ == parentEdgeIndex[v]) return e;
+        }
+
+        throw new IllegalArgumentException("Graph does not match this tree");
+    }
+
+    /**
+     * {@code pathTo()} - Writes the vertices of the shortest path to {@code v} into {@code buffer}, starting with the
+     * source and ending with {@code v}. Does not allocate.
+     * @param v the destination vertex
+     * @param buffer caller-owned array receiving the path; {@code V()} entries always suffice
+     * @return the number of vertices written, {@code 0} if there is no path
+     * @throws IllegalArgumentException if the buffer is too small for the path
+     */
+    public int pathTo(int v, int[] buffer) {
+        validateVertex(v);
+
+        if (!hasPathTo(v)) return 0;
+
+        // written back to front, then reversed in place
+        int length = 0;
+
+        for (int x = v; x != -1; x = parentVertex[x]) {
+            if (length == buffer.length) throw new IllegalArgumentException("Buffer too small for path to " + v);
+
+            buffer[length++] = x;
+        }
+
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int temp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = temp;
+        }
+
+        return length;
+    }
+
+    /**
+     * {@code reversePath()} - Lazily iterates the shortest path to {@code v} backwards, from {@code v} to the source.
+     * @param v the destination vertex
+     * @return an iterator over the vertices of the path, empty if there is no path
+     */
+    public PrimitiveIterator.OfInt reversePath(int v) {
+        validateVertex(v);
+
+        return new PrimitiveIterator.OfInt() {
+            int next = hasPathTo(v) ? v : -1;
+
+            @Override
+            public boolean hasNext() { return next != -1; }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+                int x = next;
+                next = parentVertex[x];
+
+                return x;
+            }
+        };
+    }
+
+    /**
+     * {@code bytes()} - Approximate memory used by this tree.
+     * @return size in bytes
+     */
+    public long bytes() { return 64 + 16L * parentVertex.length; }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        DijkstraSP sp = new DijkstraSP(ewd, 0);
+        CompactSPT spt = new CompactSPT(ewd, 0, sp::edgeTo, sp::distTo);
+
+        int[] buffer = new int[spt.V()];
+
+        for (int v = 0; v < spt.V(); v++) {
+            int length = spt.pathTo(v, buffer);
+
+            System.out.print(v + " (" + spt.distTo(v) + "):");
+
+            for (int i = 0; i < length; i++) {
+                System.out.print(" " + buffer[i]);
+            }
+
+            System.out.println("   via " + spt.edgeTo(ewd, v));
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code ComponentBellmanFordSP} - Bellman-Ford run one strong component at a time: components are taken in
+ * topological order of the condensation, edges inside a component are relaxed by a queue-based Bellman-Ford like
+ * {@link BellmanFordSP}'s, and edges leaving it are relaxed once, as in {@link AcyclicSP}, after its distances are
+ * final. Label-correcting work stays inside the component that needs it, and a component of one vertex costs a
+ * single pass over its edges. <br>
+ * A negative cycle is searched for, and reported, per component. Every vertex reachable from one gets distance
+ * {@code Double.NEGATIVE_INFINITY}; the other vertices keep exact distances and paths.
+ */
+public class ComponentBellmanFordSP implements ShortestPathTree {
+
+    private final int V;
+    private final double[] distTo;
+    private final DirectedEdge[] edgeTo;
+    private final Queue<Iterable<DirectedEdge>> cycles;
+
+    // scratch space for one component
+    private final boolean[] onQueue;
+    private final int[] mark;       // walk that visited each vertex, 0 if none; cleared before each search
+
+    public ComponentBellmanFordSP(Digraph G, int source) {
+        this(G, source, G == null ? null : new Condensation(G, new TarjanSCC(G)));
+    }
+
+    /**
+     * {@code ComponentBellmanFordSP} Constructor. Reuses components computed beforehand, e.g. by {@link ParallelSCC}
+     * or for several sources.
+     * @param G the digraph
+     * @param source source vertex
+     * @param condensation the strong components of {@code G}
+     */
+    public ComponentBellmanFordSP(Digraph G, int source, Condensation condensation) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (condensation == null) throw new IllegalArgumentException("Condensation cannot be null");
+
+        this.V = G.V();
+
+        validateVertex(source);
+
+        this.distTo = new double[V];
+        this.edgeTo = new DirectedEdge[V];
+        this.cycles = new Queue<>();
+        this.onQueue = new boolean[V];
+        this.mark = new int[V];
+
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+
+        distTo[source] = 0.0;
+
+        // components before the source's cannot be reached from it
+        for (int c = condensation.component(source); c < condensation.count(); c++) {
+            if (!reached(condensation, c)) continue;
+
+            boolean downstream = false;
+
+            for (int i = condensation.start(c); i < condensation.end(c); i++) {
+                downstream |= distTo[condensation.member(i)] == Double.NEGATIVE_INFINITY;
+            }
+
+            if (downstream) {
+                // -infinity + weight never improves, so its own cycle is searched for from distance 0 at every member
+                for (int i = condensation.start(c); i < condensation.end(c); i++) {
+                    distTo[condensation.member(i)] = 0.0;
+                    edgeTo[condensation.member(i)] = null;
+                }
+            }
+
+            if (relaxComponent(G, condensation, c) || downstream) {
+                // the whole component is reachable from its own cycle, or from one upstream
+                for (int i = condensation.start(c); i < condensation.end(c); i++) {
+                    distTo[condensation.member(i)] = Double.NEGATIVE_INFINITY;
+                }
+            }
+
+            // DAG relaxation of the edges leaving the component; -infinity propagates as -infinity + weight
+            for (int i = condensation.start(c); i < condensation.end(c); i++) {
+                int v = condensation.member(i);
+
+                if (distTo[v] == Double.POSITIVE_INFINITY) continue;
+
+                for (DirectedEdge e : G.adj(v)) {
+                    int w = e.to();
+
+                    if (condensation.component(w) != c && distTo[v] + e.weight() < distTo[w]) {
+                        distTo[w] = distTo[v] + e.weight();
+                        edgeTo[w] = e;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean reached(Condensation condensation, int c) {
+        for (int i = condensation.start(c); i < condensation.end(c); i++) {
+            if (distTo[condensation.member(i)] < Double.POSITIVE_INFINITY) return true;
+        }
+
+        return false;
+    }
+
+    // Bellman-Ford on the edges inside component c, returns true if it has a negative cycle
+    private boolean relaxComponent(Digraph G, Condensation condensation, int c) {
+        int size = condensation.size(c);
+        Queue<Integer> queue = new Queue<>();
+        int cost = 0;
+
+        for (int i = condensation.start(c); i < condensation.end(c); i++) {
+            int v = condensation.member(i);
+
+            if (distTo[v] < Double.POSITIVE_INFINITY) {
+                queue.enqueue(v);
+                onQueue[v] = true;
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int v = queue.dequeue();
+
+            onQueue[v] = false;
+
+            for (DirectedEdge e : G.adj(v)) {
+                int w = e.to();
+
+                if (condensation.component(w) != c) continue;
+
+                if (distTo[v] + e.weight() < distTo[w]) {
+                    distTo[w] = distTo[v] + e.weight();
+                    edgeTo[w] = e;
+
+                    if (!onQueue[w]) {
+                        queue.enqueue(w);
+                        onQueue[w] = true;
+                    }
+                }
+
+                if (++cost % size == 0 && findNegativeCycle(condensation, c)) {
+                    while (!queue.isEmpty()) onQueue[queue.dequeue()] = false;
+
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    // looks for a cycle among the edgeTo edges inside component c, which is then a negative cycle
+    private boolean findNegativeCycle(Condensation condensation, int c) {
+        for (int i = condensation.start(c); i < condensation.end(c); i++) mark[condensation.member(i)] = 0;
+
+        int walk = 0;
+
+        for (int i = condensation.start(c); i < condensation.end(c); i++) {
+            int v = condensation.member(i);
+
+            if (mark[v] != 0) continue;
+
+            // follow edgeTo back from v, inside the component, until a vertex seen before
+            int x = v;
+
+            walk++;
+
+            while (mark[x] == 0) {
+                mark[x] = walk;
+
+                DirectedEdge e = edgeTo[x];
+
+                if (e == null || condensation.component(e.from()) != c) break;
+
+                x = e.from();
+            }
+
+            if (mark[x] == walk && edgeTo[x] != null && condensation.component(edgeTo[x].from()) == c) {
+                Stack<DirectedEdge> cycle = new Stack<>();
+                DirectedEdge e = edgeTo[x];
+
+                do {
+                    cycle.push(e);
+                    e = edgeTo[e.from()];
+                } while (e.to() != x);
+
+                cycles.enqueue(cycle);
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    /**
+     * {@code distTo()} - Length of the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the distance, {@code Double.NEGATIVE_INFINITY} if a negative cycle is on the way,
+     * {@code Double.POSITIVE_INFINITY} if there is no path
+     */
+    @Override
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    @Override
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return edgeTo[v];
+    }
+
+    /**
+     * {@code pathTo()} - The edges of the shortest path from the source to {@code v}, in order.
+     * @param v the destination vertex
+     * @return the path, {@code null} if there is none
+     * @throws UnsupportedOperationException if a negative cycle is on the way to {@code v}
+     */
+    @Override
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+
+        if (distTo[v] == Double.NEGATIVE_INFINITY) throw new UnsupportedOperationException("Negative cycle on the path to " + v);
+        if (! hasPathTo(v)) return null;
+
+        Stack<DirectedEdge> path = new Stack<>();
+
+        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+            path.push(e);
+        }
+
+        return path;
+    }
+
+    @Override
+    public boolean hasNegativeCycle() {
+        return !cycles.isEmpty();
+    }
+
+    /**
+     * {@code negativeCycles()} - One negative cycle for each component that has one reachable from the source.
+     * @return the cycles, in topological order of their components
+     */
+    public Iterable<Iterable<DirectedEdge>> negativeCycles() {
+        if (!hasNegativeCycle()) throw new NoSuchElementException("No negative cycle found");
+
+        return cycles;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+
+        for (int r = 0; r < 5; r++) {
+            long start = System.nanoTime();
+            StrongComponents tarjan = new TarjanSCC(ewd);
+            long tarjanTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            StrongComponents parallel = new ParallelSCC(ewd);
+            long parallelTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            ComponentBellmanFordSP sp = new ComponentBellmanFordSP(ewd, 0, new Condensation(ewd, tarjan));
+            long componentTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BellmanFordSP bf = new BellmanFordSP(ewd, 0);
+            long bellmanFordTime = System.nanoTime() - start;
+
+            double maxDifference = 0.0;
+
+            for (int v = 0; v < ewd.V() && !bf.hasNegativeCycle(); v++) {
+                if (sp.hasPathTo(v)) maxDifference = Math.max(maxDifference, Math.abs(sp.distTo(v) - bf.distTo(v)));
+            }
+
+            System.out.printf("%d components (parallel: %d), TarjanSCC %d us, ParallelSCC %d us, "
+                    + "ComponentBellmanFordSP %d us, BellmanFordSP %d us, negative cycles %b/%b, max difference %.2g%n",
+                    tarjan.count(), parallel.count(), tarjanTime / 1000, parallelTime / 1000, componentTime / 1000,
+                    bellmanFordTime / 1000, sp.hasNegativeCycle(), bf.hasNegativeCycle(), maxDifference);
+        }
+    }
+}
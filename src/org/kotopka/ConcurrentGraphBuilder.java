@@ -0,0 +1,234 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * {@code ConcurrentGraphBuilder} - Collects edges from many producer threads without locking and turns them into an
+ * immutable {@link CompactDigraph}. <br>
+ * Every producer thread appends into its own primitive {@link EdgeBuffer}, so adding an edge never contends with
+ * other threads. {@code build()} then counting-sorts all buffers by origin vertex in parallel: each buffer counts
+ * its edges per vertex, the counts are turned into disjoint write offsets, and each buffer scatters its edges into
+ * the final arrays independently.
+ */
+public class ConcurrentGraphBuilder {
+
+    private final int V;
+    private final ConcurrentLinkedQueue<EdgeBuffer> buffers;
+    private final ThreadLocal<EdgeBuffer> localBuffer;
+    private volatile boolean built;
+
+    /**
+     * {@code EdgeBuffer} - Append-only edge list owned by a single producer thread.
+     */
+    public class EdgeBuffer {
+
+        private int[] from;
+        private int[] to;
+        private double[] weight;
+        private int size;
+
+        private EdgeBuffer() {
+            this.from = new int[1024];
+            this.to = new int[1024];
+            this.weight = new double[1024];
+        }
+
+        /**
+         * {@code addEdge()} - Appends an edge. Must only be called from the thread that owns this buffer.
+         * @param v the origin vertex
+         * @param w the destination vertex
+         * @param edgeWeight the weight of the edge
+         */
+        public void addEdge(int v, int w, double edgeWeight) {
+            if (built) throw new IllegalStateException("Graph has already been built");
+            if (v < 0 || v >= V) throw new IllegalArgumentException("Invalid vertex " + v);
+            if (w < 0 || w >= V) throw new IllegalArgumentException("Invalid vertex " + w);
+
+            if (size == from.length) {
+                int capacity = size << 1;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+
+            from[size] = v;
+            to[size] = w;
+            weight[size] = edgeWeight;
+            size++;
+        }
+
+        /**
+         * {@code size()} - Number of edges in this buffer.
+         * @return number of edges
+         */
+        public int size() { return size; }
+    }
+
+    /**
+     * {@code ConcurrentGraphBuilder} Constructor. Creates a builder for a digraph of {@code V} vertices.
+     * @param V number of vertices
+     */
+    public ConcurrentGraphBuilder(int V) {
+        if (V <= 0) throw new IllegalArgumentException("Graph must have positive number of vertices");
+
+        this.V = V;
+        this.buffers = new ConcurrentLinkedQueue<>();
+        this.localBuffer = ThreadLocal.withInitial(this::newBuffer);
+    }
+
+    /**
+     * {@code newBuffer()} - Creates a new buffer for a producer thread. Producers that keep the buffer around avoid
+     * the thread-local lookup of {@link #addEdge(DirectedEdge)}.
+     * @return an empty edge buffer registered with this builder
+     */
+    public EdgeBuffer newBuffer() {
+        if (built) throw new IllegalStateException("Graph has already been built");
+
+        EdgeBuffer buffer = new EdgeBuffer();
+        buffers.add(buffer);
+
+        return buffer;
+    }
+
+    /**
+     * {@code addEdge()} - Adds an edge to the calling thread's buffer. Safe to call from any number of threads.
+     * @param e the edge to be added
+     */
+    public void addEdge(DirectedEdge e) {
+        if (e == null) throw new IllegalArgumentException("DirectedEdge argument is null");
+
+        localBuffer.get().addEdge(e.from(), e.to(), e.weight());
+    }
+
+    /**
+     * {@code build()} - Merges all buffers into an immutable digraph. All producers must have finished (e.g. been
+     * joined) before calling this. The builder cannot be used afterwards.
+     * @return the digraph
+     */
+    public CompactDigraph build() {
+        if (built) throw new IllegalStateException("Graph has already been built");
+
+        built = true;
+
+        EdgeBuffer[] parts = buffers.toArray(new EdgeBuffer[0]);
+        int B = parts.length;
+
+        // counts[b][v] is the number of edges leaving v in buffer b, later the write offset of buffer b for v
+        int[][] counts = new int[B][];
+
+        IntStream.range(0, B).parallel().forEach(b -> {
+            int[] count = new int[V];
+            EdgeBuffer buffer = parts[b];
+
+            for (int i = 0; i < buffer.size; i++) {
+                count[buffer.from[i]]++;
+            }
+
+            counts[b] = count;
+        });
+
+        int[] start = new int[V + 1];
+
+        IntStream.range(0, V).parallel().forEach(v -> {
+            int degree = 0;
+
+            for (int b = 0; b < B; b++) {
+                degree += counts[b][v];
+            }
+
+            start[v + 1] = degree;
+        });
+
+        for (int v = 0; v < V; v++) {
+            start[v + 1] += start[v];
+        }
+
+        IntStream.range(0, V).parallel().forEach(v -> {
+            int offset = start[v];
+
+            for (int b = 0; b < B; b++) {
+                int count = counts[b][v];
+                counts[b][v] = offset;
+                offset += count;
+            }
+        });
+
+        int[] to = new int[start[V]];
+        double[] weight = new double[start[V]];
+
+        IntStream.range(0, B).parallel().forEach(b -> {
+            int[] offset = counts[b];
+            EdgeBuffer buffer = parts[b];
+
+            for (int i = 0; i < buffer.size; i++) {
+                int j = offset[buffer.from[i]]++;
+                to[j] = buffer.to[i];
+                weight[j] = buffer.weight[i];
+            }
+        });
+
+        buffers.clear();
+
+        return new CompactDigraph(V, start, to, weight);
+    }
+
+    private static long ingest(int V, int E, int threads, boolean serialized) throws InterruptedException {
+        long begin = System.nanoTime();
+
+        ConcurrentGraphBuilder builder = serialized ? null : new ConcurrentGraphBuilder(V);
+        EdgeWeightedDigraph ewd = serialized ? new EdgeWeightedDigraph(V) : null;
+        Thread[] producers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+
+            producers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                EdgeBuffer buffer = serialized ? null : builder.newBuffer();
+
+                for (int i = 0; i < E / threads; i++) {
+                    int v = random.nextInt(V);
+                    int w = random.nextInt(V);
+                    double weight = random.nextDouble();
+
+                    if (serialized) {
+                        synchronized (ewd) {
+                            ewd.addEdge(new DirectedEdge(v, w, weight));
+                        }
+                    } else {
+                        buffer.addEdge(v, w, weight);
+                    }
+                }
+            });
+            producers[t].start();
+        }
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        Digraph G = serialized ? ewd : builder.build();
+
+        if (G.E() != E / threads * threads) throw new IllegalStateException("Lost edges: " + G.E());
+
+        return System.nanoTime() - begin;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int E = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("V = %d, E = %d%n", V, E);
+
+        for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+            ingest(V, E, threads, false);   // warm up
+
+            System.out.printf("%2d threads: synchronized EdgeWeightedDigraph %6d ms, builder %6d ms%n", threads,
+                    ingest(V, E, threads, true) / 1_000_000, ingest(V, E, threads, false) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code Condensation} - The digraph of strong components: one vertex per component of a {@link StrongComponents}
+ * partition, with an edge for every edge of the digraph between two different components. It is a DAG, and the
+ * component ids are a topological order of it. <br>
+ * The members of each component are kept as contiguous ranges of one array, for solvers that work component by
+ * component.
+ */
+public class Condensation {
+
+    private final Digraph G;
+    private final StrongComponents scc;
+    private final int[] start;      // members of c are member[start[c]] to member[start[c + 1] - 1]
+    private final int[] member;
+    private EdgeWeightedDigraph dag;
+
+    /**
+     * {@code Condensation} Constructor.
+     * @param G the digraph
+     * @param scc the strong components of {@code G}
+     */
+    public Condensation(Digraph G, StrongComponents scc) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (scc == null) throw new IllegalArgumentException("Components cannot be null");
+
+        int V = G.V();
+        int count = scc.count();
+
+        this.G = G;
+        this.scc = scc;
+        this.start = new int[count + 1];
+        this.member = new int[V];
+
+        for (int v = 0; v < V; v++) start[scc.id(v) + 1]++;
+
+        for (int c = 0; c < count; c++) start[c + 1] += start[c];
+
+        int[] next = Arrays.copyOf(start, count);
+
+        for (int v = 0; v < V; v++) member[next[scc.id(v)]++] = v;
+    }
+
+    public int count() { return scc.count(); }
+
+    public int component(int v) { return scc.id(v); }
+
+    public int size(int c) {
+        validateComponent(c);
+
+        return start[c + 1] - start[c];
+    }
+
+    /**
+     * {@code members()} - The vertices of component {@code c}.
+     * @param c the component
+     * @return an {@code Iterable<Integer>} of the vertices in {@code c}
+     */
+    public Iterable<Integer> members(int c) {
+        validateComponent(c);
+
+        return () -> new Iterator<>() {
+            int i = start[c];
+
+            @Override
+            public boolean hasNext() { return i < start[c + 1]; }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+                return member[i++];
+            }
+        };
+    }
+
+    // index based access to the members, for ComponentBellmanFordSP
+    int start(int c) { return start[c]; }
+
+    int end(int c) { return start[c + 1]; }
+
+    int member(int i) { return member[i]; }
+
+    /**
+     * {@code dag()} - The condensation DAG, built on the first call. Edges keep the weight of the edge they stand for.
+     * @return edge-weighted DAG with one vertex per component
+     */
+    public EdgeWeightedDigraph dag() {
+        if (dag == null) {
+            EdgeWeightedDigraph d = new EdgeWeightedDigraph(count());
+
+            for (int v = 0; v < G.V(); v++) {
+                for (DirectedEdge e : G.adj(v)) {
+                    int c = scc.id(e.from());
+                    int k = scc.id(e.to());
+
+                    if (c != k) d.addEdge(new DirectedEdge(c, k, e.weight()));
+                }
+            }
+
+            dag = d;
+        }
+
+        return dag;
+    }
+
+    private void validateComponent(int c) {
+        if (c < 0 || c >= count()) throw new IllegalArgumentException("Invalid component " + c);
+    }
+}
@@ -0,0 +1,190 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code DenseDigraph} - Edge-weighted digraph stored as a flat {@code V x V} weight matrix, for graphs where
+ * {@code E} approaches {@code V^2}. A missing edge has weight {@code Double.POSITIVE_INFINITY}; of parallel edges only
+ * the lightest is kept, so {@code E()} counts distinct (from, to) pairs. <br>
+ * Costs {@code 8V^2} bytes regardless of {@code E}, against roughly 64 bytes per edge for
+ * {@link EdgeWeightedDigraph}; {@code isDense()} tells when the matrix and {@link DenseDijkstraSP} are the better
+ * choice.
+ */
+public class DenseDigraph implements Digraph {
+
+    private static final int MAX_V = 46_340;    // V * V must fit in an int
+
+    private final int V;
+    private final double[] weight;  // weight[v * V + w], infinite if there is no edge
+    private int E;
+
+    /**
+     * {@code DenseDigraph} Constructor. Constructs a dense digraph of V vertices and no edges.
+     * @param V number of vertices in this digraph
+     */
+    public DenseDigraph(int V) {
+        if (V <= 0) throw new IllegalArgumentException("Graph must have positive number of vertices");
+        if (V > MAX_V) throw new IllegalArgumentException("Too many vertices for a V x V matrix: " + V);
+
+        this.V = V;
+        this.weight = new double[V * V];
+
+        Arrays.fill(weight, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * {@code of()} - Creates a dense copy of any digraph.
+     * @param G the digraph to copy
+     * @return dense copy of {@code G}, or {@code G} itself if it already is a {@code DenseDigraph}
+     */
+    public static DenseDigraph of(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (G instanceof DenseDigraph) return (DenseDigraph) G;
+
+        DenseDigraph dense = new DenseDigraph(G.V());
+
+        for (DirectedEdge e : G.edges()) dense.addEdge(e);
+
+        return dense;
+    }
+
+    /**
+     * {@code isDense()} - Whether a digraph is dense enough for the matrix representation to pay off: the
+     * {@code O(V^2)} array Dijkstra beats the {@code O(E log V)} heap-based one once {@code E > V^2 / log V}.
+     * @param G the digraph
+     * @return {@code true} if {@code G} is dense
+     */
+    public static boolean isDense(Digraph G) {
+        return isDense(G.V(), G.E());
+    }
+
+    /**
+     * {@code isDense()} - Whether a digraph with the given size is dense, see {@code isDense(Digraph)}.
+     * @param V number of vertices
+     * @param E number of edges
+     * @return {@code true} if {@code E > V^2 / log2 V}
+     */
+    public static boolean isDense(int V, long E) {
+        if (V < 2 || V > MAX_V) return false;
+
+        return E > (double) V * V / (Math.log(V) / Math.log(2));
+    }
+
+    /**
+     * {@code addEdge()} - Adds an edge, or lowers the weight of an existing edge between the same vertices.
+     * @param e the edge to be added
+     */
+    @Override
+    public void addEdge(DirectedEdge e) {
+        if (e == null) throw new IllegalArgumentException("DirectedEdge argument is null");
+
+        validateVertex(e.from());
+        validateVertex(e.to());
+
+        if (Double.isNaN(e.weight()) || Double.isInfinite(e.weight())) throw new IllegalArgumentException("Invalid weight " + e.weight());
+
+        int i = e.from() * V + e.to();
+
+        if (weight[i] == Double.POSITIVE_INFINITY) E++;
+        if (e.weight() < weight[i]) weight[i] = e.weight();
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    /**
+     * {@code weight()} - Weight of the edge from {@code v} to {@code w}.
+     * @param v the origin vertex
+     * @param w the destination vertex
+     * @return the weight, {@code Double.POSITIVE_INFINITY} if there is no such edge
+     */
+    public double weight(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+
+        return weight[v * V + w];
+    }
+
+    public boolean hasEdge(int v, int w) {
+        return weight(v, w) < Double.POSITIVE_INFINITY;
+    }
+
+    // the matrix itself, for DenseDijkstraSP's row scans
+    double[] matrix() { return weight; }
+
+    @Override
+    public Iterable<DirectedEdge> adj(int v) {
+        validateVertex(v);
+
+        return () -> new EdgeIterator(v * V, v * V + V);
+    }
+
+    @Override
+    public int V() { return V; }
+
+    @Override
+    public int E() { return E; }
+
+    @Override
+    public Iterable<DirectedEdge> edges() {
+        return () -> new EdgeIterator(0, V * V);
+    }
+
+    // iterates the finite entries of weight[from..to)
+    private class EdgeIterator implements Iterator<DirectedEdge> {
+
+        int i;
+        final int end;
+
+        EdgeIterator(int i, int end) {
+            this.i = i;
+            this.end = end;
+            advance();
+        }
+
+        private void advance() {
+            while (i < end && weight[i] == Double.POSITIVE_INFINITY) i++;
+        }
+
+        @Override
+        public boolean hasNext() { return i < end; }
+
+        @Override
+        public DirectedEdge next() {
+            if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+            DirectedEdge e = new DirectedEdge(i / V, i % V, weight[i]);
+            i++;
+            advance();
+
+            return e;
+        }
+    }
+
+    /**
+     * <code>toString()</code> - String representation of this graph
+     * @return String
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("[");
+
+        for (DirectedEdge e : edges()) {
+            sb.append("(").append(e).append("), ");
+        }
+
+        if (sb.length() > 2) {
+            sb.setLength(sb.length() - 2);
+        }
+
+        sb.append("]");
+
+        return sb.toString();
+    }
+
+}
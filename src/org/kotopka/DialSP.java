@@ -0,0 +1,183 @@
+package org.kotopka;
+
+import java.util.Arrays;
+
+/**
+ * {@code DialSP} - Dijkstra's algorithm with Dial's bucket queue, for non-negative integer edge weights no larger
+ * than some small {@code C}: vertices are kept in {@code C + 1} buckets indexed by distance modulo {@code C + 1},
+ * which is enough since all queued distances lie within {@code C} of the smallest one. Insert and decrease-key are
+ * {@code O(1)} list operations; finding the next vertex scans forward over empty buckets, {@code O(E + D)} in total
+ * for a largest distance {@code D}.
+ */
+public class DialSP implements ShortestPathTree {
+
+    private final int V;
+    private final double[] distTo;
+    private final DirectedEdge[] edgeTo;
+
+    // buckets as doubly linked lists through the vertices, -1 terminated
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] bucketOf;   // bucket of a queued vertex, -1 otherwise
+
+    /**
+     * {@code DialSP} Constructor.
+     * @param G the digraph, all edge weights non-negative integers
+     * @param source source vertex
+     */
+    public DialSP(Digraph G, int source) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        this.V = G.V();
+
+        validateVertex(source);
+
+        if (!G.hasIntegerWeights()) throw new IllegalArgumentException("Edge weights must be integers");
+        if (G.minWeight() < 0.0) throw new IllegalArgumentException("Negative edge weight " + G.minWeight());
+        if (G.maxWeight() >= Integer.MAX_VALUE) throw new IllegalArgumentException("Edge weight too large " + G.maxWeight());
+
+        int buckets = (int) Math.max(G.maxWeight(), 0.0) + 1;
+
+        this.distTo = new double[V];
+        this.edgeTo = new DirectedEdge[V];
+        this.head = new int[buckets];
+        this.next = new int[V];
+        this.prev = new int[V];
+        this.bucketOf = new int[V];
+
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+        Arrays.fill(head, -1);
+        Arrays.fill(bucketOf, -1);
+
+        distTo[source] = 0.0;
+        insert(source, 0);
+
+        int queued = 1;
+
+        for (long d = 0; queued > 0; d++) {
+            int b = (int) (d % buckets);
+
+            while (head[b] != -1) {
+                int v = head[b];
+
+                remove(v);
+                queued--;
+
+                for (DirectedEdge e : G.adj(v)) {
+                    int w = e.to();
+                    double pathWeight = distTo[v] + e.weight();
+
+                    if (pathWeight < distTo[w]) {
+                        if (bucketOf[w] == -1) queued++;
+                        else remove(w);
+
+                        distTo[w] = pathWeight;
+                        edgeTo[w] = e;
+                        insert(w, (int) ((long) pathWeight % buckets));
+                    }
+                }
+            }
+        }
+    }
+
+    private void insert(int v, int b) {
+        bucketOf[v] = b;
+        prev[v] = -1;
+        next[v] = head[b];
+
+        if (head[b] != -1) prev[head[b]] = v;
+
+        head[b] = v;
+    }
+
+    private void remove(int v) {
+        int b = bucketOf[v];
+
+        if (prev[v] != -1) next[prev[v]] = next[v];
+        else head[b] = next[v];
+
+        if (next[v] != -1) prev[next[v]] = prev[v];
+
+        bucketOf[v] = -1;
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    @Override
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    @Override
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return edgeTo[v];
+    }
+
+    @Override
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+
+        if (! hasPathTo(v)) return null;
+
+        Stack<DirectedEdge> path = new Stack<>();
+
+        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+            path.push(e);
+        }
+
+        return path;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        // the digraph of the file with weights scaled to integers 1..C
+        EdgeWeightedDigraph weighted = GraphLoader.load(args[0]);
+        int C = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        EdgeWeightedDigraph ewd = new EdgeWeightedDigraph(weighted.V());
+
+        for (DirectedEdge e : weighted.edges()) {
+            ewd.addEdge(new DirectedEdge(e.from(), e.to(), 1 + Math.floor(e.weight() * (C - 1))));
+        }
+
+        for (int r = 0; r < 5; r++) {
+            long start = System.nanoTime();
+            DialSP dial = new DialSP(ewd, 0);
+            long dialTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            DijkstraSP heap = new DijkstraSP(ewd, 0);
+            long heapTime = System.nanoTime() - start;
+
+            double maxDifference = 0.0;
+
+            for (int v = 0; v < ewd.V(); v++) {
+                if (dial.hasPathTo(v)) maxDifference = Math.max(maxDifference, Math.abs(dial.distTo(v) - heap.distTo(v)));
+            }
+
+            System.out.printf("C = %d: DialSP %6d us, DijkstraSP %6d us, max difference %.2g%n",
+                    C, dialTime / 1000, heapTime / 1000, maxDifference);
+        }
+    }
+}
@@ -10,4 +10,58 @@ public interface Digraph {
     int E();
 
     Iterable<DirectedEdge> edges();
+
+    /**
+     * {@code minWeight()} - The smallest edge weight. Scans all edges; digraphs that track it as edges are added
+     * override this.
+     * @return the smallest weight, {@code Double.POSITIVE_INFINITY} if there are no edges
+     */
+    default double minWeight() {
+        double min = Double.POSITIVE_INFINITY;
+
+        for (int v = 0; v < V(); v++) {
+            for (DirectedEdge e : adj(v)) min = Math.min(min, e.weight());
+        }
+
+        return min;
+    }
+
+    /**
+     * {@code maxWeight()} - The largest edge weight. Scans all edges; digraphs that track it as edges are added
+     * override this.
+     * @return the largest weight, {@code Double.NEGATIVE_INFINITY} if there are no edges
+     */
+    default double maxWeight() {
+        double max = Double.NEGATIVE_INFINITY;
+
+        for (int v = 0; v < V(); v++) {
+            for (DirectedEdge e : adj(v)) max = Math.max(max, e.weight());
+        }
+
+        return max;
+    }
+
+    /**
+     * {@code hasIntegerWeights()} - Returns {@code true} if every edge weight is a whole number, so that bucket based
+     * queues can be used. Scans all edges; digraphs that track it as edges are added override this.
+     * @return boolean {@code true} if all weights are integers, {@code false} otherwise
+     */
+    default boolean hasIntegerWeights() {
+        for (int v = 0; v < V(); v++) {
+            for (DirectedEdge e : adj(v)) {
+                if (e.weight() != Math.rint(e.weight())) return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * {@code isDAG()} - Returns {@code true} if this digraph has no directed cycle. Runs a topological sort;
+     * digraphs that know or cache the answer override this.
+     * @return boolean {@code true} if this digraph is a DAG, {@code false} otherwise
+     */
+    default boolean isDAG() {
+        return Topological.kahn(this).length == V();
+    }
 }
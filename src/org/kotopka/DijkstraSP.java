@@ -3,14 +3,21 @@ package org.kotopka;
 import java.util.Arrays;
 
 /**
- * {@code DijkstraSP} - Calculate a shortest-paths tree using Dijkstra's algorithm
+ * {@code DijkstraSP} - Calculate a shortest-paths tree using Dijkstra's algorithm. <br>
+ * The edge weights are classified first: if they are all equal the tree comes from a breadth-first search, if they
+ * are {@code 0} and one positive value from {@link ZeroOneBFS}, neither of which needs a priority queue. Digraphs
+ * with fewer than {@value #BFS_CUTOFF} edges are searched in place over {@code adj()}; larger ones go to
+ * {@link BreadthFirstSP}, whose CSR copies and parallel steps only pay off at that size.
  */
-public class DijkstraSP {
+public class DijkstraSP implements ShortestPathTree {
+
+    static final int BFS_CUTOFF = 1 << 14;
+
+    private enum Weights { UNIFORM, ZERO_ONE, GENERAL }
 
     private final int V;
     private final double[] distTo;
     private final DirectedEdge[] edgeTo;
-    private final IndexDaryMinPQ<Double> edgePQ;    // v is index, weight is key
 
     public DijkstraSP(Digraph G, int source) {
         if (G == null) throw new IllegalArgumentException("Graph cannot be null");
@@ -21,22 +28,109 @@ public class DijkstraSP {
 
         this.distTo = new double[V];
         this.edgeTo = new DirectedEdge[V];
-        this.edgePQ = new IndexDaryMinPQ<>(IndexDaryMinPQ.FOUR_WAY_HEAP, V);   // using a 4-ary heap
+
+        switch (classify(G)) {
+            case UNIFORM:
+                if (G.E() < BFS_CUTOFF) breadthFirst(G, source);
+                else fromBreadthFirst(G, new BreadthFirstSP(G, source));
+                break;
+            case ZERO_ONE:
+                ZeroOneBFS bfs = new ZeroOneBFS(G, source);
+
+                for (int v = 0; v < V; v++) {
+                    distTo[v] = bfs.distTo(v);
+                    edgeTo[v] = bfs.edgeTo(v);
+                }
+                break;
+            default:
+                // v is index, weight is key, using a 4-ary heap
+                IndexDaryMinPQ<Double> edgePQ = new IndexDaryMinPQ<>(IndexDaryMinPQ.FOUR_WAY_HEAP, V);
+
+                Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+
+                distTo[source] = 0.0;
+                edgeTo[source] = null;
+
+                edgePQ.insert(source, 0.0);
+
+                while (!edgePQ.isEmpty()) {
+                    relax(G, edgePQ, edgePQ.delMin());
+                }
+        }
+    }
+
+    // which solver the edge weights allow, stops at the first edge that rules out both BFS variants
+    private static Weights classify(Digraph G) {
+        double first = Double.NaN;  // weight of the first edge
+        double c = 0.0;             // the positive weight of a 0-c digraph
+        boolean uniform = true;
+        boolean zeroOne = true;
+
+        for (int v = 0; v < G.V(); v++) {
+            for (DirectedEdge e : G.adj(v)) {
+                double weight = e.weight();
+
+                if (Double.isNaN(first)) first = weight;
+
+                uniform &= weight == first;
+
+                if (weight != 0.0 && weight != c) {
+                    if (c == 0.0 && weight > 0.0) c = weight;
+                    else zeroOne = false;
+                }
+
+                if (!uniform && !zeroOne) return Weights.GENERAL;
+            }
+        }
+
+        if (uniform) return first < 0.0 ? Weights.GENERAL : Weights.UNIFORM;
+
+        return Weights.ZERO_ONE;
+    }
+
+    // plain FIFO breadth-first search, all weights are equal
+    private void breadthFirst(Digraph G, int source) {
+        boolean[] marked = new boolean[V];
+        int[] queue = new int[V];
+        int head = 0;
+        int tail = 0;
 
         Arrays.fill(distTo, Double.POSITIVE_INFINITY);
 
         distTo[source] = 0.0;
-        edgeTo[source] = null;
+        marked[source] = true;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int v = queue[head++];
 
-        edgePQ.insert(source, 0.0);
+            for (DirectedEdge e : G.adj(v)) {
+                int w = e.to();
 
-        while (!edgePQ.isEmpty()) {
-            relax(G, edgePQ.delMin());
+                if (!marked[w]) {
+                    marked[w] = true;
+                    distTo[w] = distTo[v] + e.weight();
+                    edgeTo[w] = e;
+                    queue[tail++] = w;
+                }
+            }
         }
+    }
+
+    // copies the BFS tree, using G's own edge objects
+    private void fromBreadthFirst(Digraph G, BreadthFirstSP bfs) {
+        for (int v = 0; v < V; v++) distTo[v] = bfs.distTo(v);
+
+        for (int v = 0; v < V; v++) {
+            for (DirectedEdge e : G.adj(v)) {
+                int w = e.to();
 
+                if (edgeTo[w] == null && bfs.parent(w) == v) edgeTo[w] = e;
+            }
+        }
     }
 
-    private void relax(Digraph G, int v) {
+    private void relax(Digraph G, IndexDaryMinPQ<Double> edgePQ, int v) {
 
         // for all edges incident to vertex v
         for (DirectedEdge e : G.adj(v)) {
@@ -48,9 +142,9 @@ public class DijkstraSP {
                 edgeTo[w] = e;
 
                 if (edgePQ.contains(w)) {
-                    edgePQ.changeKey(w, e.weight());
+                    edgePQ.changeKey(w, pathWeight);
                 } else {
-                    edgePQ.insert(w, e.weight());
+                    edgePQ.insert(w, pathWeight);
                 }
             }
         }
@@ -60,11 +154,25 @@ public class DijkstraSP {
         if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
     }
 
+    @Override
     public double distTo(int v) {
         validateVertex(v);
         return distTo[v];
     }
 
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return edgeTo[v];
+    }
+
+    @Override
     public Iterable<DirectedEdge> pathTo(int v) {
         validateVertex(v);
 
@@ -79,6 +187,7 @@ public class DijkstraSP {
         return path;
     }
 
+    @Override
     public boolean hasPathTo(int v) {
         validateVertex(v);
 
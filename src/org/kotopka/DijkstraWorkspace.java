@@ -0,0 +1,298 @@
+package org.kotopka;
+
+import java.util.Arrays;
+
+/**
+ * {@code DijkstraWorkspace} - Reusable Dijkstra solver over a {@link CompactDigraph}. All working memory (distances,
+ * parents and a binary heap of primitive ints) is allocated once and reset in time proportional to the vertices the
+ * previous query touched, so a workspace can answer query after query without allocating. <br>
+ * A workspace is not thread-safe; give each thread its own or take them from a pool. The digraph itself is immutable
+ * and may be shared. Edge weights must be non-negative.
+ */
+public class DijkstraWorkspace {
+
+    private final CompactDigraph G;
+    private final double[] distTo;
+    private final int[] parent;     // parent vertex, -1 for the source and unreached vertices
+    private final int[] heap;       // heap[1..size] holds vertices, ordered by distTo
+    private final int[] heapIndex;  // position of each vertex in the heap, 0 if never queued, -1 once settled
+    private final int[] touched;    // vertices whose distTo was set by the current query
+    private final int[] targetMark; // equals epoch for the targets of the current multi-target query
+    private int epoch;
+    private int size;
+    private int touchedCount;
+    private int source;
+
+    /**
+     * {@code DijkstraWorkspace} Constructor.
+     * @param G the digraph that all queries of this workspace run on
+     */
+    public DijkstraWorkspace(CompactDigraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        int V = G.V();
+
+        this.G = G;
+        this.distTo = new double[V];
+        this.parent = new int[V];
+        this.heap = new int[V + 1];
+        this.heapIndex = new int[V];
+        this.touched = new int[V];
+        this.targetMark = new int[V];
+        this.source = -1;
+
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+    }
+
+    public CompactDigraph graph() { return G; }
+
+    /**
+     * {@code solve()} - Computes shortest paths from {@code source} to all vertices.
+     * @param source source vertex
+     */
+    public void solve(int source) {
+        solve(source, -1);
+    }
+
+    /**
+     * {@code solve()} - Computes shortest paths from {@code source}, stopping as soon as the distance to
+     * {@code target} is final. Distances of vertices not yet settled at that point are upper bounds only.
+     * @param source source vertex
+     * @param target vertex to stop at, or {@code -1} to settle all vertices
+     */
+    public void solve(int source, int target) {
+        validateVertex(source);
+        if (target != -1) validateVertex(target);
+
+        start(source);
+
+        while (size > 0) {
+            int v = settleNext();
+
+            if (v == target) break;
+        }
+    }
+
+    /**
+     * {@code solve()} - Computes shortest paths from {@code source}, stopping as soon as the distances to all of
+     * {@code targets[from..to)} are final. Duplicate targets are allowed.
+     * @param source source vertex
+     * @param targets array holding the target vertices
+     * @param from index of the first target (inclusive)
+     * @param to index of the last target (exclusive)
+     */
+    public void solve(int source, int[] targets, int from, int to) {
+        validateVertex(source);
+
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(targetMark, 0);
+            epoch = 1;
+        }
+
+        int remaining = 0;
+
+        for (int i = from; i < to; i++) {
+            int t = targets[i];
+
+            validateVertex(t);
+
+            if (targetMark[t] != epoch) {
+                targetMark[t] = epoch;
+                remaining++;
+            }
+        }
+
+        start(source);
+
+        while (size > 0 && remaining > 0) {
+            if (targetMark[settleNext()] == epoch) remaining--;
+        }
+    }
+
+    /**
+     * {@code solve()} - Point-to-point search that only follows edges whose bit is set in a mask, e.g. arc flags.
+     * Edge {@code e} may be used iff bit {@code bit % 64} of {@code mask[e * stride + bit / 64]} is set.
+     * @param source source vertex
+     * @param target vertex to stop at
+     * @param mask edge bits, {@code stride} longs per edge
+     * @param stride number of longs per edge
+     * @param bit the bit to test
+     */
+    void solve(int source, int target, long[] mask, int stride, int bit) {
+        validateVertex(source);
+        validateVertex(target);
+
+        start(source);
+
+        int word = bit >>> 6;
+        long select = 1L << (bit & 63);
+
+        while (size > 0) {
+            int v = pop();
+
+            if (v == target) break;
+
+            double d = distTo[v];
+
+            for (int e = G.start(v); e < G.end(v); e++) {
+                if ((mask[e * stride + word] & select) != 0) relax(v, G.to(e), d + G.weight(e));
+            }
+        }
+    }
+
+    // resets the state of the previous query and seeds the heap with the source
+    void start(int source) {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distTo[v] = Double.POSITIVE_INFINITY;
+            parent[v] = -1;
+            heapIndex[v] = 0;
+        }
+
+        touchedCount = 0;
+        size = 0;
+        this.source = source;
+
+        distTo[source] = 0.0;
+        touched[touchedCount++] = source;
+        push(source);
+    }
+
+    boolean hasNextToSettle() { return size > 0; }
+
+    // removes the closest vertex from the heap and relaxes its edges, returns the vertex
+    int settleNext() {
+        int v = pop();
+        double d = distTo[v];
+
+        for (int e = G.start(v); e < G.end(v); e++) {
+            relax(v, G.to(e), d + G.weight(e));
+        }
+
+        return v;
+    }
+
+    // settled vertices are final and never pushed again, with negative weights they could otherwise improve
+    private void relax(int v, int w, double pathWeight) {
+        if (heapIndex[w] >= 0 && pathWeight < distTo[w]) {
+            if (distTo[w] == Double.POSITIVE_INFINITY) touched[touchedCount++] = w;
+
+            distTo[w] = pathWeight;
+            parent[w] = v;
+
+            if (heapIndex[w] > 0) {
+                swim(heapIndex[w]);
+            } else {
+                push(w);
+            }
+        }
+    }
+
+    private void push(int v) {
+        heap[++size] = v;
+        heapIndex[v] = size;
+        swim(size);
+    }
+
+    private int pop() {
+        int min = heap[1];
+
+        heap[1] = heap[size--];
+        heapIndex[heap[1]] = 1;
+        heapIndex[min] = -1;    // settled, distinct from 0 (never queued) so relax() does not push it again
+
+        if (size > 0) sink(1);
+
+        return min;
+    }
+
+    private void swim(int k) {
+        int v = heap[k];
+        double d = distTo[v];
+
+        while (k > 1 && distTo[heap[k >> 1]] > d) {
+            heap[k] = heap[k >> 1];
+            heapIndex[heap[k]] = k;
+            k >>= 1;
+        }
+
+        heap[k] = v;
+        heapIndex[v] = k;
+    }
+
+    private void sink(int k) {
+        int v = heap[k];
+        double d = distTo[v];
+
+        while (2 * k <= size) {
+            int j = 2 * k;
+
+            if (j < size && distTo[heap[j + 1]] < distTo[heap[j]]) j++;
+            if (distTo[heap[j]] >= d) break;
+
+            heap[k] = heap[j];
+            heapIndex[heap[k]] = k;
+            k = j;
+        }
+
+        heap[k] = v;
+        heapIndex[v] = k;
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= distTo.length) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    public int source() { return source; }
+
+    /**
+     * {@code reached()} - Number of vertices the last query assigned a distance to, a measure of its search space.
+     * @return reached vertex count
+     */
+    public int reached() { return touchedCount; }
+
+    public double distTo(int v) {
+        validateVertex(v);
+
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public int parent(int v) {
+        validateVertex(v);
+
+        return parent[v];
+    }
+
+    /**
+     * {@code pathTo()} - Writes the vertices of the path to {@code v} into {@code buffer}, source first.
+     * @param v the destination vertex
+     * @param buffer caller-owned array receiving the path; {@code V} entries always suffice
+     * @return the number of vertices written, {@code 0} if there is no path
+     */
+    public int pathTo(int v, int[] buffer) {
+        validateVertex(v);
+
+        if (!hasPathTo(v)) return 0;
+
+        int length = 0;
+
+        for (int x = v; x != -1; x = parent[x]) {
+            buffer[length++] = x;
+        }
+
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int temp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = temp;
+        }
+
+        return length;
+    }
+}
@@ -0,0 +1,173 @@
+package org.kotopka;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * {@code DistanceTable} - Many-to-many shortest-path distances: for source set {@code S} and target set {@code T},
+ * the {@code |S| x |T|} matrix of distances, stored flat in row-major order. <br>
+ * Every search stops as soon as all of its targets are settled. Searches run from whichever side is smaller:
+ * forward from each source, or backward from each target over the reverse digraph (stopping once all sources are
+ * settled), so a 500 x 20 table costs 20 searches, not 500. Duplicate vertices in the larger set cost nothing extra,
+ * and searches run in parallel, each thread on its own {@link DijkstraWorkspace}. <br>
+ * Bucket-based many-to-many algorithms share more work between searches, but they need a contraction hierarchy to
+ * keep the buckets small; this is the plain-graph version.
+ */
+public class DistanceTable {
+
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] distances;
+    private final boolean backward;
+
+    /**
+     * {@code DistanceTable} Constructor.
+     * @param G the digraph, edge weights must be non-negative
+     * @param sources the row vertices, duplicates allowed
+     * @param targets the column vertices, duplicates allowed
+     */
+    public DistanceTable(CompactDigraph G, int[] sources, int[] targets) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (sources == null || targets == null) throw new IllegalArgumentException("Vertex sets cannot be null");
+
+        for (int v : sources) validateVertex(G, v);
+        for (int v : targets) validateVertex(G, v);
+
+        // bounds the row-major offsets i * columns + j as well
+        if ((long) sources.length * targets.length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Table too large: " + sources.length + " x " + targets.length);
+        }
+
+        this.sources = sources.clone();
+        this.targets = targets.clone();
+        this.distances = new double[sources.length * targets.length];
+        this.backward = targets.length < sources.length;
+
+        int rows = sources.length;
+        int columns = targets.length;
+
+        if (rows == 0 || columns == 0) return;
+
+        if (backward) {
+            CompactDigraph reverse = G.reverse();
+            ThreadLocal<DijkstraWorkspace> workspaces = ThreadLocal.withInitial(() -> new DijkstraWorkspace(reverse));
+
+            IntStream.range(0, columns).parallel().forEach(j -> {
+                DijkstraWorkspace workspace = workspaces.get();
+
+                workspace.solve(this.targets[j], this.sources, 0, rows);
+
+                for (int i = 0; i < rows; i++) {
+                    distances[i * columns + j] = workspace.distTo(this.sources[i]);
+                }
+            });
+        } else {
+            ThreadLocal<DijkstraWorkspace> workspaces = ThreadLocal.withInitial(() -> new DijkstraWorkspace(G));
+
+            IntStream.range(0, rows).parallel().forEach(i -> {
+                DijkstraWorkspace workspace = workspaces.get();
+
+                workspace.solve(this.sources[i], this.targets, 0, columns);
+
+                for (int j = 0; j < columns; j++) {
+                    distances[i * columns + j] = workspace.distTo(this.targets[j]);
+                }
+            });
+        }
+    }
+
+    private static void validateVertex(CompactDigraph G, int vertex) {
+        if (vertex < 0 || vertex >= G.V()) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    public int rows() { return sources.length; }
+
+    public int columns() { return targets.length; }
+
+    /**
+     * {@code isBackward()} - Whether the table was computed with backward searches from the targets.
+     * @return {@code true} if there are fewer targets than sources
+     */
+    public boolean isBackward() { return backward; }
+
+    /**
+     * {@code distance()} - Distance from {@code sources[i]} to {@code targets[j]}.
+     * @param i row index into the source array
+     * @param j column index into the target array
+     * @return the distance, {@code Double.POSITIVE_INFINITY} if there is no path
+     */
+    public double distance(int i, int j) {
+        if (i < 0 || i >= sources.length) throw new IllegalArgumentException("Invalid row " + i);
+        if (j < 0 || j >= targets.length) throw new IllegalArgumentException("Invalid column " + j);
+
+        return distances[i * targets.length + j];
+    }
+
+    /**
+     * {@code toFlatArray()} - Copy of the table in row-major order, entry {@code (i, j)} at {@code i * columns() + j}.
+     * @return the distances
+     */
+    public double[] toFlatArray() { return distances.clone(); }
+
+    /**
+     * {@code toArray()} - Copy of the table as one array per source.
+     * @return the distances
+     */
+    public double[][] toArray() {
+        double[][] table = new double[sources.length][];
+
+        for (int i = 0; i < sources.length; i++) {
+            table[i] = new double[targets.length];
+            System.arraycopy(distances, i * targets.length, table[i], 0, targets.length);
+        }
+
+        return table;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        CompactDigraph G = CompactDigraph.of(ewd);
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Random random = new Random(7);
+        int[] sources = random.ints(size, 0, G.V()).toArray();
+        int[] targets = random.ints(size, 0, G.V()).toArray();
+        int[] fewTargets = random.ints(Math.max(1, size / 10), 0, G.V()).toArray();
+
+        long start = System.nanoTime();
+        double[][] naive = new double[size][size];
+
+        for (int i = 0; i < size; i++) {
+            DijkstraSP sp = new DijkstraSP(ewd, sources[i]);
+
+            for (int j = 0; j < size; j++) naive[i][j] = sp.distTo(targets[j]);
+        }
+
+        long naiveTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        DistanceTable table = new DistanceTable(G, sources, targets);
+        long tableTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        DistanceTable narrow = new DistanceTable(G, sources, fewTargets);
+        long narrowTime = System.nanoTime() - start;
+
+        double maxError = 0.0;
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (naive[i][j] != table.distance(i, j)) maxError = Math.max(maxError, Math.abs(naive[i][j] - table.distance(i, j)));
+            }
+        }
+
+        System.out.printf("%d x %d, DijkstraSP loop: %d ms%n", size, size, naiveTime / 1_000_000);
+        System.out.printf("%d x %d, DistanceTable:   %d ms (max difference %.3g)%n", size, size, tableTime / 1_000_000, maxError);
+        System.out.printf("%d x %d, DistanceTable:   %d ms (backward: %b)%n", size, fewTargets.length,
+                narrowTime / 1_000_000, narrow.isBackward());
+    }
+}
@@ -0,0 +1,396 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code DynamicDAG} - Edge-weighted DAG that maintains a topological order while vertices and edges are added, using
+ * the online algorithm of Pearce and Kelly. Adding an edge {@code v->w} that already agrees with the order costs
+ * O(1); otherwise only the vertices whose position lies between {@code w} and {@code v} are searched and shuffled.
+ * Edges that would create a cycle are rejected. Removing an edge never invalidates the order, so it costs only the
+ * removal from the two adjacency lists. <br>
+ * {@code order()} hands the maintained order to the DAG solvers ({@link AcyclicSP}, {@link AcyclicLongestPaths}),
+ * so they do not need to run {@link Topological} again.
+ */
+public class DynamicDAG implements Digraph {
+
+    private int V;
+    private int E;
+    private Bag<DirectedEdge>[] out;
+    private Bag<DirectedEdge>[] in;
+    private int[] ord;  // ord[v] is the position of v in the topological order
+    private int[] pos;  // pos[i] is the vertex at position i, the inverse of ord
+    private int modCount;
+
+    // scratch space for the searches, grown with the graph
+    private boolean[] visited;
+    private int[] stack;
+    private int[] deltaF;
+    private int[] deltaB;
+    private int[] merged;
+
+    /**
+     * {@code DynamicDAG} Constructor. Creates a DAG of {@code V} vertices and no edges.
+     * @param V initial number of vertices, more can be added with {@code addVertex()}
+     */
+    public DynamicDAG(int V) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices cannot be negative");
+
+        this.V = 0;
+        ensureCapacity(Math.max(V, 16));
+
+        for (int v = 0; v < V; v++) {
+            addVertex();
+        }
+    }
+
+    /**
+     * {@code DynamicDAG} Constructor. Creates a DAG holding all the edges of {@code G}.
+     * @param G the digraph to copy
+     * @throws IllegalArgumentException if {@code G} has a cycle
+     */
+    public DynamicDAG(Digraph G) {
+        this(vertices(G));
+
+        for (DirectedEdge e : G.edges()) {
+            addEdge(e);
+        }
+    }
+
+    // checked inside this(...), before the delegating constructor runs
+    private static int vertices(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        return G.V();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ensureCapacity(int capacity) {
+        if (out != null && capacity <= out.length) return;
+
+        int size = Math.max(capacity, out == null ? 0 : out.length << 1);
+
+        out = out == null ? (Bag<DirectedEdge>[]) new Bag[size] : Arrays.copyOf(out, size);
+        in = in == null ? (Bag<DirectedEdge>[]) new Bag[size] : Arrays.copyOf(in, size);
+        ord = ord == null ? new int[size] : Arrays.copyOf(ord, size);
+        pos = pos == null ? new int[size] : Arrays.copyOf(pos, size);
+        visited = new boolean[size];
+        stack = new int[size];
+        deltaF = new int[size];
+        deltaB = new int[size];
+        merged = new int[size];
+    }
+
+    /**
+     * {@code addVertex()} - Adds a new vertex, placed last in the topological order.
+     * @return the new vertex
+     */
+    public int addVertex() {
+        ensureCapacity(V + 1);
+
+        out[V] = new Bag<>();
+        in[V] = new Bag<>();
+        ord[V] = V;
+        pos[V] = V;
+        modCount++;
+
+        return V++;
+    }
+
+    /**
+     * {@code addEdge()} - Adds an edge, updating the topological order.
+     * @param e the edge to be added
+     * @throws IllegalArgumentException if the edge would create a cycle
+     */
+    @Override
+    public void addEdge(DirectedEdge e) {
+        if (!tryAddEdge(e)) throw new IllegalArgumentException("Edge " + e + " would create a cycle");
+    }
+
+    /**
+     * {@code tryAddEdge()} - Adds an edge unless it would create a cycle, updating the topological order.
+     * @param e the edge to be added
+     * @return {@code true} if the edge was added, {@code false} if it was rejected
+     */
+    public boolean tryAddEdge(DirectedEdge e) {
+        if (e == null) throw new IllegalArgumentException("DirectedEdge argument is null");
+
+        int x = e.from();
+        int y = e.to();
+
+        validateVertex(x);
+        validateVertex(y);
+
+        if (x == y) return false;
+
+        int lb = ord[y];
+        int ub = ord[x];
+
+        if (lb < ub) {
+            // affected region: vertices reachable from y with position < ub, and those reaching x with position > lb
+            int forward = search(y, ub, true, x);
+
+            if (forward < 0) return false;
+
+            int backward = search(x, lb, false, -1);
+
+            reorder(forward, backward);
+        }
+
+        out[x].add(e);
+        in[y].add(e);
+        E++;
+        modCount++;
+
+        return true;
+    }
+
+    /**
+     * {@code removeEdge()} - Removes an edge {@code v->w}. The topological order stays valid and is not changed.
+     * @param v the origin vertex
+     * @param w the destination vertex
+     * @throws IllegalArgumentException if there is no edge {@code v->w}
+     */
+    public void removeEdge(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+
+        DirectedEdge edge = null;
+
+        for (DirectedEdge e : out[v]) {
+            if (e.to() == w) {
+                edge = e;
+                break;
+            }
+        }
+
+        if (edge == null) throw new IllegalArgumentException("No edge " + v + "->" + w);
+
+        out[v] = without(out[v], edge);
+        in[w] = without(in[w], edge);
+        E--;
+        modCount++;
+    }
+
+    // Bag does not support removal, copy it without the edge
+    private static Bag<DirectedEdge> without(Bag<DirectedEdge> bag, DirectedEdge edge) {
+        Bag<DirectedEdge> copy = new Bag<>();
+
+        for (DirectedEdge e : bag) {
+            if (e != edge) copy.add(e);
+        }
+
+        return copy;
+    }
+
+    // depth-first search bounded by the position limit; collects visited vertices into deltaF (forward) or deltaB
+    // (backward); returns the number collected, or -1 if target was reached (the edge closes a cycle)
+    private int search(int start, int limit, boolean forward, int target) {
+        int[] delta = forward ? deltaF : deltaB;
+        int count = 0;
+        int top = 0;
+
+        stack[top++] = start;
+        visited[start] = true;
+
+        while (top > 0) {
+            int v = stack[--top];
+            delta[count++] = v;
+
+            for (DirectedEdge e : forward ? out[v] : in[v]) {
+                int w = forward ? e.to() : e.from();
+
+                if (w == target) {
+                    for (int i = 0; i < count; i++) visited[delta[i]] = false;
+                    for (int i = 0; i < top; i++) visited[stack[i]] = false;
+
+                    return -1;
+                }
+
+                if (!visited[w] && (forward ? ord[w] < limit : ord[w] > limit)) {
+                    visited[w] = true;
+                    stack[top++] = w;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private void reorder(int forward, int backward) {
+        sortByOrder(deltaF, forward);
+        sortByOrder(deltaB, backward);
+
+        // the positions held by both sets, merged; the backward set takes the lowest, then the forward set
+        int i = 0;
+        int j = 0;
+        int k = 0;
+
+        while (i < backward || j < forward) {
+            if (j == forward || i < backward && ord[deltaB[i]] < ord[deltaF[j]]) {
+                merged[k++] = ord[deltaB[i++]];
+            } else {
+                merged[k++] = ord[deltaF[j++]];
+            }
+        }
+
+        for (k = 0; k < backward; k++) {
+            int v = deltaB[k];
+            visited[v] = false;
+            ord[v] = merged[k];
+            pos[merged[k]] = v;
+        }
+
+        for (int f = 0; f < forward; f++, k++) {
+            int v = deltaF[f];
+            visited[v] = false;
+            ord[v] = merged[k];
+            pos[merged[k]] = v;
+        }
+    }
+
+    private void sortByOrder(int[] a, int n) {
+        // sort by position: positions are distinct, so sort them and map back through pos[]
+        for (int i = 0; i < n; i++) a[i] = ord[a[i]];
+
+        Arrays.sort(a, 0, n);
+
+        for (int i = 0; i < n; i++) a[i] = pos[a[i]];
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    @Override
+    public Iterable<DirectedEdge> adj(int v) {
+        validateVertex(v);
+
+        return out[v];
+    }
+
+    /**
+     * {@code incoming()} - All edges pointing to vertex {@code v}.
+     * @param v the destination vertex
+     * @return an {@code Iterable} of the edges into {@code v}, order should be considered arbitrary
+     */
+    public Iterable<DirectedEdge> incoming(int v) {
+        validateVertex(v);
+
+        return in[v];
+    }
+
+    @Override
+    public int V() { return V; }
+
+    @Override
+    public int E() { return E; }
+
+    /**
+     * {@code isDAG()} - Always {@code true}, edges that would create a cycle are rejected.
+     * @return boolean {@code true}
+     */
+    @Override
+    public boolean isDAG() { return true; }
+
+    @Override
+    public Iterable<DirectedEdge> edges() {
+        Bag<DirectedEdge> bag = new Bag<>();
+
+        for (int v = 0; v < V; v++) {
+            for (DirectedEdge e : out[v]) {
+                bag.add(e);
+            }
+        }
+
+        return bag;
+    }
+
+    /**
+     * {@code position()} - The position of {@code v} in the current topological order.
+     * @param v the vertex
+     * @return position between {@code 0} and {@code V() - 1}
+     */
+    public int position(int v) {
+        validateVertex(v);
+
+        return ord[v];
+    }
+
+    /**
+     * {@code order()} - The vertices in topological order. This is a view of the maintained order, not a copy;
+     * iterating it while the DAG is modified throws {@code ConcurrentModificationException}.
+     * @return an {@code Iterable<Integer>} of all vertices in topological order
+     */
+    public Iterable<Integer> order() {
+        return () -> new Iterator<>() {
+            final int expectedModCount = modCount;
+            int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                if (expectedModCount != modCount) throw new ConcurrentModificationException("DAG modified during iteration");
+
+                return i < V;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+                return pos[i++];
+            }
+        };
+    }
+
+    /**
+     * <code>toString()</code> - String representation of this graph
+     * @return String
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("[");
+
+        for (DirectedEdge e : edges()) {
+            sb.append("(").append(e).append("), ");
+        }
+
+        if (sb.length() > 2) {
+            sb.setLength(sb.length() - 2);
+        }
+
+        sb.append("]");
+
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        DynamicDAG dag = new DynamicDAG(GraphLoader.load(args[0]).V());
+
+        // add the edges one at a time, solving between additions with the maintained order
+        for (DirectedEdge e : GraphLoader.load(args[0]).edges()) {
+            if (!dag.tryAddEdge(e)) {
+                System.out.println("rejected " + e + " (cycle)");
+                continue;
+            }
+
+            AcyclicSP sp = new AcyclicSP(dag, 5, dag.order());
+            System.out.println("added " + e + ", distTo 0 = " + sp.distTo(0));
+        }
+
+        System.out.print("order: ");
+        for (int v : dag.order()) {
+            System.out.print(v + " ");
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,314 @@
+package org.kotopka;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * {@code DynamicDigraph} - Edge-weighted digraph with a fixed topology whose edge weights change over time, e.g. from
+ * a traffic feed. Weights are updated in batches with copy-on-write versioning: every batch publishes a new immutable
+ * {@link Snapshot}. Queries running against an older snapshot keep seeing consistent weights, new queries pick up the
+ * new weights, and there is never a rebuild pause. <br>
+ * Weights are stored in fixed-size pages, so a batch only copies the pages it touches; the topology arrays are shared
+ * by all versions. Edges are identified by their index in CSR order: the edges leaving {@code v} are
+ * {@code start(v)} to {@code end(v) - 1}.
+ */
+public class DynamicDigraph {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final int V;
+    private final int[] start;
+    private final int[] from;
+    private final int[] to;
+    private volatile Snapshot current;
+
+    /**
+     * {@code Snapshot} - Immutable version of a {@code DynamicDigraph}, safe to share between threads.
+     */
+    public static class Snapshot implements Digraph {
+
+        private final long version;
+        private final int V;
+        private final int[] start;
+        private final int[] from;
+        private final int[] to;
+        private final double[][] pages;
+
+        private Snapshot(long version, int V, int[] start, int[] from, int[] to, double[][] pages) {
+            this.version = version;
+            this.V = V;
+            this.start = start;
+            this.from = from;
+            this.to = to;
+            this.pages = pages;
+        }
+
+        /**
+         * {@code version()} - The version of this snapshot, starting at 0 and incremented by every batch update.
+         * @return the version number
+         */
+        public long version() { return version; }
+
+        /**
+         * {@code weight()} - The weight of edge {@code id} in this version.
+         * @param id edge id
+         * @return the weight of the edge
+         */
+        public double weight(int id) { return pages[id >>> PAGE_SHIFT][id & PAGE_MASK]; }
+
+        /**
+         * {@code addEdge()} - Not supported, snapshots are immutable.
+         * @throws UnsupportedOperationException always
+         */
+        @Override
+        public void addEdge(DirectedEdge e) {
+            throw new UnsupportedOperationException("Snapshot is immutable");
+        }
+
+        @Override
+        public Iterable<DirectedEdge> adj(int v) {
+            if (v < 0 || v >= V) throw new IllegalArgumentException("Invalid vertex " + v);
+
+            return () -> new EdgeIterator(start[v], start[v + 1]);
+        }
+
+        @Override
+        public int V() { return V; }
+
+        @Override
+        public int E() { return to.length; }
+
+        @Override
+        public Iterable<DirectedEdge> edges() {
+            return () -> new EdgeIterator(0, to.length);
+        }
+
+        private class EdgeIterator implements Iterator<DirectedEdge> {
+
+            int i;
+            final int end;
+
+            EdgeIterator(int i, int end) {
+                this.i = i;
+                this.end = end;
+            }
+
+            @Override
+            public boolean hasNext() { return i < end; }
+
+            @Override
+            public DirectedEdge next() {
+                if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+                DirectedEdge e = new DirectedEdge(from[i], to[i], weight(i));
+                i++;
+
+                return e;
+            }
+        }
+    }
+
+    /**
+     * {@code DynamicDigraph} Constructor. Takes the topology and initial weights from {@code G}. Edge ids are
+     * assigned in CSR order, keeping the {@code adj()} order of each vertex.
+     * @param G the initial digraph
+     */
+    public DynamicDigraph(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        CompactDigraph csr = CompactDigraph.of(G);
+        int E = csr.E();
+
+        this.V = csr.V();
+        this.start = new int[V + 1];
+        this.from = new int[E];
+        this.to = new int[E];
+
+        double[][] pages = new double[(E + PAGE_MASK) >>> PAGE_SHIFT][];
+
+        for (int p = 0; p < pages.length; p++) {
+            pages[p] = new double[Math.min(PAGE_SIZE, E - (p << PAGE_SHIFT))];
+        }
+
+        for (int v = 0; v < V; v++) {
+            start[v + 1] = csr.end(v);
+
+            for (int e = csr.start(v); e < csr.end(v); e++) {
+                from[e] = v;
+                to[e] = csr.to(e);
+                pages[e >>> PAGE_SHIFT][e & PAGE_MASK] = csr.weight(e);
+            }
+        }
+
+        this.current = new Snapshot(0, V, start, from, to, pages);
+    }
+
+    /**
+     * {@code snapshot()} - The current version of this digraph. The returned snapshot never changes, even while
+     * later updates are applied.
+     * @return the current snapshot
+     */
+    public Snapshot snapshot() { return current; }
+
+    /**
+     * {@code version()} - The current version number.
+     * @return the version of the current snapshot
+     */
+    public long version() { return current.version(); }
+
+    /**
+     * {@code updateWeights()} - Applies a batch of weight changes and publishes them atomically as a new version.
+     * Concurrent batches are applied one after the other; readers are never blocked.
+     * @param edgeIds ids of the edges to update
+     * @param newWeights the new weight of each edge in {@code edgeIds}
+     * @return the snapshot containing the update
+     * @throws IllegalArgumentException if the arrays differ in length or an edge id is invalid
+     */
+    public synchronized Snapshot updateWeights(int[] edgeIds, double[] newWeights) {
+        if (edgeIds == null || newWeights == null) throw new IllegalArgumentException("Arguments cannot be null");
+        if (edgeIds.length != newWeights.length) throw new IllegalArgumentException("Array lengths differ");
+
+        for (int id : edgeIds) {
+            validateEdge(id);
+        }
+
+        Snapshot old = current;
+        double[][] pages = old.pages.clone();
+        boolean[] copied = new boolean[pages.length];
+
+        for (int i = 0; i < edgeIds.length; i++) {
+            int p = edgeIds[i] >>> PAGE_SHIFT;
+
+            if (!copied[p]) {
+                pages[p] = pages[p].clone();
+                copied[p] = true;
+            }
+
+            pages[p][edgeIds[i] & PAGE_MASK] = newWeights[i];
+        }
+
+        Snapshot next = new Snapshot(old.version() + 1, V, start, from, to, pages);
+        current = next;
+
+        return next;
+    }
+
+    private void validateEdge(int id) {
+        if (id < 0 || id >= to.length) throw new IllegalArgumentException("Invalid edge id " + id);
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    public int V() { return V; }
+
+    public int E() { return to.length; }
+
+    /**
+     * {@code start()} - Id of the first edge leaving {@code v}.
+     * @param v the origin vertex
+     * @return id of the first edge of {@code v}
+     */
+    public int start(int v) {
+        validateVertex(v);
+
+        return start[v];
+    }
+
+    /**
+     * {@code end()} - One past the id of the last edge leaving {@code v}.
+     * @param v the origin vertex
+     * @return id one past the last edge of {@code v}
+     */
+    public int end(int v) {
+        validateVertex(v);
+
+        return start[v + 1];
+    }
+
+    /**
+     * {@code from()} - Origin vertex of edge {@code id}.
+     * @param id edge id
+     * @return origin vertex
+     */
+    public int from(int id) {
+        validateEdge(id);
+
+        return from[id];
+    }
+
+    /**
+     * {@code to()} - Destination vertex of edge {@code id}.
+     * @param id edge id
+     * @return destination vertex
+     */
+    public int to(int id) {
+        validateEdge(id);
+
+        return to[id];
+    }
+
+    /**
+     * {@code edgeId()} - Looks up the id of an edge {@code v->w}.
+     * @param v the origin vertex
+     * @param w the destination vertex
+     * @return the id of the first edge from {@code v} to {@code w}, or {@code -1} if there is none
+     */
+    public int edgeId(int v, int w) {
+        validateVertex(v);
+
+        for (int e = start[v]; e < start[v + 1]; e++) {
+            if (to[e] == w) return e;
+        }
+
+        return -1;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        DynamicDigraph G = new DynamicDigraph(GraphLoader.load(args[0]));
+        Snapshot before = G.snapshot();
+
+        // a query thread keeps working on the version it started with while the feed updates weights
+        Thread query = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                DijkstraSP sp = new DijkstraSP(before, 0);
+                if (sp.distTo(G.V() - 1) != new DijkstraSP(before, 0).distTo(G.V() - 1)) {
+                    throw new IllegalStateException("Snapshot changed under a running query");
+                }
+            }
+        });
+        query.start();
+
+        Random random = new Random(1);
+
+        for (int batch = 0; batch < 100; batch++) {
+            int[] ids = new int[Math.max(1, G.E() / 10)];
+            double[] weights = new double[ids.length];
+
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = random.nextInt(G.E());
+                weights[i] = random.nextDouble();
+            }
+
+            G.updateWeights(ids, weights);
+        }
+
+        query.join();
+
+        int destination = G.V() - 1;
+
+        System.out.println("version " + before.version() + ": distTo " + destination + " "
+                + new DijkstraSP(before, 0).distTo(destination));
+        System.out.println("version " + G.version() + ": distTo " + destination + " "
+                + new DijkstraSP(G.snapshot(), 0).distTo(destination));
+    }
+}
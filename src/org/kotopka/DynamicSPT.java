@@ -0,0 +1,379 @@
+package org.kotopka;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * {@code DynamicSPT} - Shortest-paths tree that is repaired in place when edges change, instead of being recomputed
+ * from scratch. Follows the approach of Ramalingam and Reps: <br>
+ * - a weight decrease or an edge insertion can only shorten paths through the edge's head, so a Dijkstra search is
+ * started from there and stops as soon as no distance improves; <br>
+ * - a weight increase or an edge deletion only matters if the edge is in the tree; then only the subtree hanging off
+ * it is invalidated, re-seeded from its unaffected in-neighbours, and settled again with Dijkstra. <br>
+ * Every update returns the number of vertices whose distance changed. Edge weights must be non-negative.
+ */
+public class DynamicSPT {
+
+    private final int V;
+    private final int source;
+    private final List<List<DirectedEdge>> out;
+    private final List<List<DirectedEdge>> in;
+    private final double[] distTo;
+    private final DirectedEdge[] edgeTo;
+    private final IndexDaryMinPQ<Double> pq;
+
+    // scratch space for increases and deletions, sized once
+    private final boolean[] affected;
+    private final double[] oldDist;
+    private final int[] subtree;
+
+    /**
+     * {@code DynamicSPT} Constructor. Computes the initial tree with {@link DijkstraSP}.
+     * @param G the digraph, copied so that later updates do not modify it
+     * @param source source vertex of the SPT
+     */
+    public DynamicSPT(Digraph G, int source) {
+        this(G, source, new DijkstraSP(G, source));
+    }
+
+    /**
+     * {@code DynamicSPT} Constructor. Seeds the tree from an existing solve of the same digraph and source.
+     * @param G the digraph, copied so that later updates do not modify it
+     * @param source source vertex of the SPT
+     * @param sp shortest paths from {@code source} in {@code G}
+     */
+    public DynamicSPT(Digraph G, int source, DijkstraSP sp) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (sp == null) throw new IllegalArgumentException("DijkstraSP cannot be null");
+
+        this.V = G.V();
+
+        validateVertex(source);
+
+        if (sp.distTo(source) != 0.0) throw new IllegalArgumentException("DijkstraSP was not solved from " + source);
+
+        this.source = source;
+        this.out = new ArrayList<>(V);
+        this.in = new ArrayList<>(V);
+
+        for (int v = 0; v < V; v++) {
+            out.add(new ArrayList<>());
+            in.add(new ArrayList<>());
+        }
+
+        for (DirectedEdge e : G.edges()) {
+            if (e.weight() < 0.0) throw new IllegalArgumentException("Negative edge weight " + e);
+
+            out.get(e.from()).add(e);
+            in.get(e.to()).add(e);
+        }
+
+        this.distTo = new double[V];
+        this.edgeTo = new DirectedEdge[V];
+
+        for (int v = 0; v < V; v++) {
+            distTo[v] = sp.distTo(v);
+            edgeTo[v] = sp.edgeTo(v);
+        }
+
+        this.pq = new IndexDaryMinPQ<>(IndexDaryMinPQ.FOUR_WAY_HEAP, V);
+        this.affected = new boolean[V];
+        this.oldDist = new double[V];
+        this.subtree = new int[V];
+    }
+
+    /**
+     * {@code insertEdge()} - Adds an edge and repairs the tree.
+     * @param e the edge to be added
+     * @return the number of vertices whose distance changed
+     */
+    public int insertEdge(DirectedEdge e) {
+        validateEdge(e);
+
+        out.get(e.from()).add(e);
+        in.get(e.to()).add(e);
+
+        return decreased(e);
+    }
+
+    /**
+     * {@code deleteEdge()} - Removes an edge {@code v->w} and repairs the tree.
+     * @param v the origin vertex
+     * @param w the destination vertex
+     * @return the number of vertices whose distance changed
+     * @throws IllegalArgumentException if there is no edge {@code v->w}
+     */
+    public int deleteEdge(int v, int w) {
+        DirectedEdge e = find(v, w);
+
+        out.get(v).remove(e);
+        in.get(w).remove(e);
+
+        return increased(e);
+    }
+
+    /**
+     * {@code updateWeight()} - Changes the weight of the edge {@code v->w} and repairs the tree.
+     * @param v the origin vertex
+     * @param w the destination vertex
+     * @param weight the new weight
+     * @return the number of vertices whose distance changed
+     * @throws IllegalArgumentException if there is no edge {@code v->w}
+     */
+    public int updateWeight(int v, int w, double weight) {
+        DirectedEdge old = find(v, w);
+        DirectedEdge e = new DirectedEdge(v, w, weight);
+
+        validateEdge(e);
+
+        List<DirectedEdge> adj = out.get(v);
+        adj.set(adj.indexOf(old), e);
+
+        List<DirectedEdge> radj = in.get(w);
+        radj.set(radj.indexOf(old), e);
+
+        if (weight <= old.weight()) {
+            if (isTreeEdge(old)) edgeTo[w] = e;
+
+            return weight < old.weight() ? decreased(e) : 0;
+        }
+
+        return increased(old);
+    }
+
+    private int decreased(DirectedEdge e) {
+        int v = e.from();
+        int w = e.to();
+
+        if (distTo[v] + e.weight() >= distTo[w]) return 0;
+
+        distTo[w] = distTo[v] + e.weight();
+        edgeTo[w] = e;
+        pq.insert(w, distTo[w]);
+
+        int changed = 0;
+
+        while (!pq.isEmpty()) {
+            int x = pq.delMin();
+            changed++;
+
+            for (DirectedEdge f : out.get(x)) {
+                int y = f.to();
+                double pathWeight = distTo[x] + f.weight();
+
+                if (distTo[y] > pathWeight) {
+                    distTo[y] = pathWeight;
+                    edgeTo[y] = f;
+
+                    if (pq.contains(y)) {
+                        pq.changeKey(y, pathWeight);
+                    } else {
+                        pq.insert(y, pathWeight);
+                    }
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    // old is the edge as it was before the update; its replacement, if any, is already in the adjacency lists
+    private int increased(DirectedEdge old) {
+        int w = old.to();
+
+        if (!isTreeEdge(old)) return 0;     // not a tree edge, no shortest path used it
+
+        // collect the subtree rooted at w
+        int size = 0;
+        subtree[size++] = w;
+        affected[w] = true;
+
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+
+            for (DirectedEdge f : out.get(x)) {
+                int y = f.to();
+
+                if (!affected[y] && isTreeEdge(f)) {
+                    affected[y] = true;
+                    subtree[size++] = y;
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+            oldDist[x] = distTo[x];
+            distTo[x] = Double.POSITIVE_INFINITY;
+            edgeTo[x] = null;
+        }
+
+        // best way into each affected vertex from outside the subtree
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+
+            for (DirectedEdge f : in.get(x)) {
+                int u = f.from();
+
+                if (!affected[u] && distTo[u] + f.weight() < distTo[x]) {
+                    distTo[x] = distTo[u] + f.weight();
+                    edgeTo[x] = f;
+                }
+            }
+
+            if (distTo[x] < Double.POSITIVE_INFINITY) pq.insert(x, distTo[x]);
+        }
+
+        while (!pq.isEmpty()) {
+            int x = pq.delMin();
+
+            for (DirectedEdge f : out.get(x)) {
+                int y = f.to();
+                double pathWeight = distTo[x] + f.weight();
+
+                if (affected[y] && distTo[y] > pathWeight) {
+                    distTo[y] = pathWeight;
+                    edgeTo[y] = f;
+
+                    if (pq.contains(y)) {
+                        pq.changeKey(y, pathWeight);
+                    } else {
+                        pq.insert(y, pathWeight);
+                    }
+                }
+            }
+        }
+
+        int changed = 0;
+
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+            affected[x] = false;
+
+            if (Double.compare(distTo[x], oldDist[x]) != 0) changed++;
+        }
+
+        return changed;
+    }
+
+    // matches by endpoints and weight, not by reference: digraphs such as CompactDigraph create new DirectedEdge
+    // objects on every adj() call, so the tree edges from the initial solve are not the objects in out and in
+    private boolean isTreeEdge(DirectedEdge f) {
+        DirectedEdge t = edgeTo[f.to()];
+
+        return t != null && t.from() == f.from() && t.weight() == f.weight();
+    }
+
+    private DirectedEdge find(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+
+        for (DirectedEdge e : out.get(v)) {
+            if (e.to() == w) return e;
+        }
+
+        throw new IllegalArgumentException("No edge " + v + "->" + w);
+    }
+
+    private void validateEdge(DirectedEdge e) {
+        if (e == null) throw new IllegalArgumentException("DirectedEdge argument is null");
+
+        validateVertex(e.from());
+        validateVertex(e.to());
+
+        if (e.weight() < 0.0) throw new IllegalArgumentException("Negative edge weight " + e);
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    public int source() { return source; }
+
+    public double distTo(int v) {
+        validateVertex(v);
+
+        return distTo[v];
+    }
+
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return edgeTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+
+        if (!hasPathTo(v)) return null;
+
+        Stack<DirectedEdge> path = new Stack<>();
+
+        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+            path.push(e);
+        }
+
+        return path;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        DynamicSPT spt = new DynamicSPT(ewd, 0);
+
+        // apply random weight changes, checking each repaired tree against a full solve of the same digraph
+        Random random = new Random(7);
+        EdgeWeightedDigraph current = ewd;
+        long repair = 0;
+        long rebuild = 0;
+        long changed = 0;
+        int updates = 200;
+
+        for (int i = 0; i < updates; i++) {
+            DirectedEdge[] edges = new DirectedEdge[current.E()];
+            int k = 0;
+
+            for (DirectedEdge e : current.edges()) edges[k++] = e;
+
+            DirectedEdge target = edges[random.nextInt(edges.length)];
+            double weight = random.nextDouble();
+
+            long start = System.nanoTime();
+            changed += spt.updateWeight(target.from(), target.to(), weight);
+            repair += System.nanoTime() - start;
+
+            EdgeWeightedDigraph next = new EdgeWeightedDigraph(current.V());
+
+            for (DirectedEdge e : edges) {
+                next.addEdge(e == target ? new DirectedEdge(e.from(), e.to(), weight) : e);
+            }
+
+            current = next;
+
+            start = System.nanoTime();
+            DijkstraSP sp = new DijkstraSP(current, 0);
+            rebuild += System.nanoTime() - start;
+
+            for (int v = 0; v < current.V(); v++) {
+                if (sp.hasPathTo(v) != spt.hasPathTo(v)
+                        || sp.hasPathTo(v) && Math.abs(sp.distTo(v) - spt.distTo(v)) > 1e-9) {
+                    throw new IllegalStateException("Mismatch at vertex " + v);
+                }
+            }
+        }
+
+        System.out.printf("%d updates, %.1f vertices changed on average%n", updates, (double) changed / updates);
+        System.out.printf("repair: %.1f us/update, rebuild: %.1f us/update%n", repair / 1e3 / updates, rebuild / 1e3 / updates);
+    }
+}
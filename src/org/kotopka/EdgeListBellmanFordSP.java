@@ -0,0 +1,303 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * {@code EdgeListBellmanFordSP} - Bellman-Ford as full sweeps over an edge list held as structure-of-arrays
+ * ({@code from[]}, {@code to[]}, {@code weight[]}), instead of {@link BellmanFordSP}'s queue of vertices and
+ * {@code DirectedEdge} objects. Sweeps repeat until one changes nothing. <br>
+ * Every sweep runs in blocks of {@value #BLOCK} edges, split into simple loops so that the arithmetic can be
+ * vectorized: a scalar gather of {@code dist[from]} into a buffer, a plain array add of the weights, then the min
+ * update. Two kernels: <br>
+ * - {@link Mode#PUSH}: edges in CSR order, min updates scattered to {@code dist[to]} one at a time, which handles
+ * edges in the same block sharing a target; updates apply within the sweep (Gauss-Seidel), so fewer sweeps are
+ * needed; <br>
+ * - {@link Mode#PULL}: edges grouped by target (reverse CSR), each target reducing the min over its own edges, so
+ * targets never conflict and the sweep runs in parallel blocks, reading one distance array and writing the other. <br>
+ * The kernels use plain loops for HotSpot's auto-vectorizer rather than {@code jdk.incubator.vector}, which this
+ * module does not enable.
+ */
+public class EdgeListBellmanFordSP implements ShortestPathTree {
+
+    private static final int BLOCK = 256;
+    private static final int TARGET_BLOCK = 1 << 12;
+
+    public enum Mode { PUSH, PULL }
+
+    private final int V;
+    private final double[] distTo;
+    private final int[] parent;
+    private final double[] parentWeight;
+    private Iterable<DirectedEdge> cycle;
+    private int sweeps;
+
+    public EdgeListBellmanFordSP(Digraph G, int source) {
+        this(G, source, Mode.PUSH);
+    }
+
+    /**
+     * {@code EdgeListBellmanFordSP} Constructor.
+     * @param G the digraph
+     * @param source source vertex
+     * @param mode the sweep kernel
+     */
+    public EdgeListBellmanFordSP(Digraph G, int source, Mode mode) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (mode == null) throw new IllegalArgumentException("Mode cannot be null");
+
+        // PULL sweeps the reverse digraph, whose "to" is the original tail
+        CompactDigraph edges = mode == Mode.PUSH ? CompactDigraph.of(G) : CompactDigraph.of(G).reverse();
+
+        this.V = edges.V();
+
+        validateVertex(source);
+
+        this.parent = new int[V];
+        this.parentWeight = new double[V];
+
+        int E = edges.E();
+        int[] tail = new int[E];    // PUSH: from, PULL: to
+        int[] head = new int[E];    // PUSH: to, PULL: from
+        double[] weight = new double[E];
+
+        for (int v = 0; v < V; v++) {
+            for (int e = edges.start(v); e < edges.end(v); e++) {
+                tail[e] = v;
+                head[e] = edges.to(e);
+                weight[e] = edges.weight(e);
+            }
+        }
+
+        double[] current = new double[V];
+
+        Arrays.fill(current, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+
+        current[source] = 0.0;
+
+        if (mode == Mode.PUSH) {
+            double[] candidate = new double[BLOCK];
+
+            while (sweepPush(tail, head, weight, current, candidate) && !checkForCycle()) { }
+        } else {
+            double[] next = current.clone();
+            int[] start = new int[V + 1];
+
+            for (int v = 0; v < V; v++) start[v + 1] = edges.end(v);
+
+            while (true) {
+                double[] in = current;
+                double[] out = next;
+                int blocks = (V + TARGET_BLOCK - 1) / TARGET_BLOCK;
+
+                boolean changed = IntStream.range(0, blocks).parallel()
+                        .map(block -> sweepPull(start, head, weight, in, out, block) ? 1 : 0)
+                        .sum() > 0;
+
+                current = out;
+                next = in;
+
+                if (!changed || checkForCycle()) break;
+
+                System.arraycopy(current, 0, next, 0, V);
+            }
+        }
+
+        this.distTo = current;
+    }
+
+    // one push sweep over all edges, returns true if any distance changed
+    private boolean sweepPush(int[] from, int[] to, double[] weight, double[] dist, double[] candidate) {
+        boolean changed = false;
+
+        sweeps++;
+
+        for (int b = 0; b < from.length; b += BLOCK) {
+            int n = Math.min(BLOCK, from.length - b);
+
+            // gather
+            for (int i = 0; i < n; i++) candidate[i] = dist[from[b + i]];
+
+            // add
+            for (int i = 0; i < n; i++) candidate[i] += weight[b + i];
+
+            // scatter min, in order, so edges with the same target see each other's updates
+            for (int i = 0; i < n; i++) {
+                int w = to[b + i];
+
+                if (candidate[i] < dist[w]) {
+                    // a tail improved earlier in this block may have a better value by now
+                    double pathWeight = Math.min(candidate[i], dist[from[b + i]] + weight[b + i]);
+
+                    dist[w] = pathWeight;
+                    parent[w] = from[b + i];
+                    parentWeight[w] = weight[b + i];
+                    changed = true;
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    // one pull sweep over the targets of one block, returns true if any of their distances changed
+    private boolean sweepPull(int[] start, int[] from, double[] weight, double[] current, double[] next, int block) {
+        int end = Math.min(V, (block + 1) * TARGET_BLOCK);
+        double[] candidate = new double[BLOCK];
+        boolean changed = false;
+
+        for (int w = block * TARGET_BLOCK; w < end; w++) {
+            double best = current[w];
+
+            for (int b = start[w]; b < start[w + 1]; b += BLOCK) {
+                int n = Math.min(BLOCK, start[w + 1] - b);
+
+                // gather
+                for (int i = 0; i < n; i++) candidate[i] = current[from[b + i]];
+
+                // add
+                for (int i = 0; i < n; i++) candidate[i] += weight[b + i];
+
+                // min reduction
+                double min = Double.POSITIVE_INFINITY;
+
+                for (int i = 0; i < n; i++) min = Math.min(min, candidate[i]);
+
+                if (min < best) {
+                    best = min;
+
+                    int i = 0;
+
+                    while (candidate[i] != min) i++;
+
+                    parent[w] = from[b + i];
+                    parentWeight[w] = weight[b + i];
+                }
+            }
+
+            if (best < current[w]) {
+                next[w] = best;
+                changed = true;
+            }
+        }
+
+        if (block == 0) sweeps++;
+
+        return changed;
+    }
+
+    // every V sweeps, looks for a cycle among the parent edges, which exists iff there is a negative cycle
+    private boolean checkForCycle() {
+        if (sweeps % V != 0) return false;
+
+        EdgeWeightedDigraph ewd = new EdgeWeightedDigraph(V);
+
+        for (int v = 0; v < V; v++) {
+            if (parent[v] != -1) ewd.addEdge(new DirectedEdge(parent[v], v, parentWeight[v]));
+        }
+
+        cycle = new EdgeWeightedDC(ewd).cycle();
+
+        return cycle != null;
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    @Override
+    public double distTo(int v) {
+        validateVertex(v);
+
+        return distTo[v];
+    }
+
+    @Override
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return parent[v] == -1 ? null : new DirectedEdge(parent[v], v, parentWeight[v]);
+    }
+
+    @Override
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
+
+        Stack<DirectedEdge> path = new Stack<>();
+
+        for (DirectedEdge e = edgeTo(v); e != null; e = edgeTo(e.from())) {
+            path.push(e);
+        }
+
+        return path;
+    }
+
+    @Override
+    public boolean hasNegativeCycle() {
+        return cycle != null;
+    }
+
+    public Iterable<DirectedEdge> negativeCycle() {
+        if (!hasNegativeCycle()) throw new NoSuchElementException("No negative cycle found");
+
+        return cycle;
+    }
+
+    /**
+     * {@code sweeps()} - Number of passes over the edge list.
+     * @return sweep count
+     */
+    public int sweeps() { return sweeps; }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        int repetitions = 5;
+
+        for (int r = 0; r < repetitions; r++) {
+            long start = System.nanoTime();
+            BellmanFordSP reference = new BellmanFordSP(ewd, 0);
+            long referenceTime = System.nanoTime() - start;
+
+            System.out.printf("BellmanFordSP %6d us", referenceTime / 1000);
+
+            for (Mode mode : Mode.values()) {
+                start = System.nanoTime();
+                EdgeListBellmanFordSP sp = new EdgeListBellmanFordSP(ewd, 0, mode);
+                long time = System.nanoTime() - start;
+
+                double maxDifference = 0.0;
+
+                if (sp.hasNegativeCycle() != reference.hasNegativeCycle()) maxDifference = Double.NaN;
+
+                for (int v = 0; v < ewd.V() && !sp.hasNegativeCycle(); v++) {
+                    if (sp.hasPathTo(v)) maxDifference = Math.max(maxDifference, Math.abs(sp.distTo(v) - reference.distTo(v)));
+                }
+
+                System.out.printf(", %s %6d us (%d sweeps, %.1fx, difference %.2g)", mode, time / 1000, sp.sweeps(),
+                        (double) referenceTime / time, maxDifference);
+            }
+
+            System.out.println();
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package org.kotopka;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * {@code EdgeWeightedDigraph} - Data type representing an edge-weighted digraph.
  * Adapted from <a href="https://algs4.cs.princeton.edu/home/">Algorithms 4th ed.</a> by Robert Sedgewick and Kevin Wayne
+ * <br>
+ * The smallest and largest weight and whether all weights are integers are kept up to date by {@code addEdge()}.
+ * The topological order is computed on the first {@code isDAG()} or {@code order()} and kept as long as added edges
+ * agree with it.
  */
 public class EdgeWeightedDigraph implements Digraph {
 
     private final int V;
     private final Bag<DirectedEdge>[] adj;
     private int E;
+    private double minWeight = Double.POSITIVE_INFINITY;
+    private double maxWeight = Double.NEGATIVE_INFINITY;
+    private boolean integerWeights = true;
+    private int[] topologicalOrder;     // null until computed or after an edge breaks it, empty if there is a cycle
+    private int[] position;             // position[v] is the index of v in topologicalOrder
 
     /**
      * {@code EdgeWeightedDigraph} Constructor. Constructs an edge-weighted digraph of V vertices.
@@ -36,6 +48,16 @@ public class EdgeWeightedDigraph implements Digraph {
 
         adj[e.from()].add(e);
         this.E++;
+
+        minWeight = Math.min(minWeight, e.weight());
+        maxWeight = Math.max(maxWeight, e.weight());
+        integerWeights &= e.weight() == Math.rint(e.weight());
+
+        // a cycle stays a cycle, and an order stays valid while edges point forward in it
+        if (topologicalOrder != null && topologicalOrder.length == V && position[e.from()] >= position[e.to()]) {
+            topologicalOrder = null;
+            position = null;
+        }
     }
 
     /**
@@ -64,6 +86,61 @@ public class EdgeWeightedDigraph implements Digraph {
     @Override
     public int E() { return E; }
 
+    @Override
+    public double minWeight() { return minWeight; }
+
+    @Override
+    public double maxWeight() { return maxWeight; }
+
+    @Override
+    public boolean hasIntegerWeights() { return integerWeights; }
+
+    /**
+     * {@code isDAG()} - Returns {@code true} if this digraph has no directed cycle. Cached until an added edge
+     * disagrees with the topological order.
+     * @return boolean {@code true} if this digraph is a DAG, {@code false} otherwise
+     */
+    @Override
+    public boolean isDAG() {
+        return topologicalOrder().length == V;
+    }
+
+    /**
+     * {@code order()} - The vertices in topological order, cached like {@code isDAG()}.
+     * @return an {@code Iterable<Integer>} of all vertices in topological order
+     * @throws UnsupportedOperationException if this digraph is not a DAG
+     */
+    public Iterable<Integer> order() {
+        int[] order = topologicalOrder();
+
+        if (order.length != V) throw new UnsupportedOperationException("Graph must be a DAG");
+
+        return () -> new Iterator<>() {
+            int i = 0;
+
+            @Override
+            public boolean hasNext() { return i < order.length; }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+                return order[i++];
+            }
+        };
+    }
+
+    private int[] topologicalOrder() {
+        if (topologicalOrder == null) {
+            topologicalOrder = Topological.kahn(this);
+            position = new int[V];
+
+            for (int i = 0; i < topologicalOrder.length; i++) position[topologicalOrder[i]] = i;
+        }
+
+        return topologicalOrder;
+    }
+
     /**
      * edges() - Returns an object of type Iterable of all edges in the edge-weighted digraph.
      * @return An object of type Iterable containing all of the edges in this digraph. Order should be considered arbitrary.
@@ -81,6 +158,15 @@ public class EdgeWeightedDigraph implements Digraph {
         return bag;
     }
 
+    /**
+     * {@code freeze()} - Takes a read-only snapshot of this digraph that can be shared between threads without
+     * locking. Edges added to this digraph afterwards are not visible in the snapshot.
+     * @return a frozen snapshot of this digraph
+     */
+    public FrozenDigraph freeze() {
+        return new FrozenDigraph(this);
+    }
+
     /**
      * <code>toString()</code> - String representation of this graph
      * @return String
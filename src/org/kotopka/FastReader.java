@@ -0,0 +1,213 @@
+package org.kotopka;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code FastReader} - Whitespace tokenizer for large numeric input files. Reads raw bytes through a large buffer and
+ * parses numbers in place, so, unlike {@code Scanner} or {@code String.split()}, it creates no {@code String} or
+ * regex objects per token. Only ASCII input is supported. <br>
+ * Line structure is available through {@code hasNextOnLine()} and {@code nextLine()} for formats where the number of
+ * tokens per line varies.
+ */
+public class FastReader implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_EXACT_DIGITS = 15;     // any 15 digit integer is exact as a double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int length;
+    private int position;
+
+    /**
+     * {@code FastReader} Constructor.
+     * @param in the input stream to read from
+     */
+    public FastReader(InputStream in) {
+        if (in == null) throw new IllegalArgumentException("InputStream cannot be null");
+
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    // returns the next byte without consuming it, or -1 at the end of the input
+    private int peek() {
+        if (position == length) {
+            try {
+                length = in.read(buffer, 0, buffer.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            position = 0;
+
+            if (length <= 0) {
+                length = 0;
+                return -1;
+            }
+        }
+
+        return buffer[position];
+    }
+
+    private static boolean isSpace(int c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\f';
+    }
+
+    private void skipWhitespace() {
+        int c;
+
+        while ((c = peek()) != -1 && (isSpace(c) || c == '\n')) {
+            position++;
+        }
+    }
+
+    /**
+     * {@code hasNext()} - Returns {@code true} if there is another token.
+     * @return boolean {@code true} if there is another token, {@code false} at the end of the input
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+
+        return peek() != -1;
+    }
+
+    /**
+     * {@code hasNextOnLine()} - Returns {@code true} if there is another token before the end of the current line.
+     * @return boolean {@code true} if the current line has another token, {@code false} otherwise
+     */
+    public boolean hasNextOnLine() {
+        int c;
+
+        while ((c = peek()) != -1 && isSpace(c)) {
+            position++;
+        }
+
+        return c != -1 && c != '\n';
+    }
+
+    /**
+     * {@code nextLine()} - Skips the rest of the current line, including the line break.
+     */
+    public void nextLine() {
+        int c;
+
+        while ((c = peek()) != -1) {
+            position++;
+
+            if (c == '\n') return;
+        }
+    }
+
+    /**
+     * {@code nextLong()} - Parses the next token as a {@code long}.
+     * @return the value
+     * @throws NoSuchElementException at the end of the input
+     * @throws NumberFormatException if the token is not an integer
+     */
+    public long nextLong() {
+        if (!hasNext()) throw new NoSuchElementException("No more tokens");
+
+        boolean negative = false;
+        int c = peek();
+
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            position++;
+        }
+
+        long value = 0;
+        int digits = 0;
+
+        while ((c = peek()) >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            position++;
+            digits++;
+        }
+
+        if (digits == 0 || c != -1 && !isSpace(c) && c != '\n') throw new NumberFormatException("Not an integer");
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * {@code nextInt()} - Parses the next token as an {@code int}.
+     * @return the value
+     * @throws NoSuchElementException at the end of the input
+     * @throws NumberFormatException if the token is not an integer in {@code int} range
+     */
+    public int nextInt() {
+        long value = nextLong();
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw new NumberFormatException("Out of int range");
+
+        return (int) value;
+    }
+
+    /**
+     * {@code nextDouble()} - Parses the next token as a {@code double}. Plain decimals are parsed in place; tokens
+     * with an exponent or more digits than a double holds exactly fall back to {@code Double.parseDouble()}.
+     * @return the value
+     * @throws NoSuchElementException at the end of the input
+     * @throws NumberFormatException if the token is not a number
+     */
+    public double nextDouble() {
+        if (!hasNext()) throw new NoSuchElementException("No more tokens");
+
+        boolean negative = false;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        int c = peek();
+
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            position++;
+        }
+
+        while ((c = peek()) != -1 && !isSpace(c) && c != '\n') {
+            if (c >= '0' && c <= '9' && digits < MAX_EXACT_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fraction) scale++;
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                // exponent, too many digits or junk: let the JDK deal with the whole token
+                StringBuilder token = new StringBuilder(Long.toString(mantissa));
+
+                while (token.length() <= scale) token.insert(0, '0');
+
+                if (fraction) token.insert(token.length() - scale, '.');
+                if (negative) token.insert(0, '-');
+
+                while ((c = peek()) != -1 && !isSpace(c) && c != '\n') {
+                    token.append((char) c);
+                    position++;
+                }
+
+                return Double.parseDouble(token.toString());
+            }
+
+            position++;
+        }
+
+        if (digits == 0) throw new NumberFormatException("Not a number");
+
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+
+        return negative ? -value : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
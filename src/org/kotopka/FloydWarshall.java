@@ -0,0 +1,220 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * {@code FloydWarshall} - All-pairs shortest paths with the Floyd-Warshall algorithm, for dense digraphs of up to a
+ * few ten thousand vertices. Negative edge weights are allowed. <br>
+ * Distances and next hops are flat {@code V x V} row-major arrays. The {@code V} rounds are run in tiles of
+ * {@value #BLOCK} x {@value #BLOCK} entries: for each diagonal tile, first the tile itself, then the tiles in its row
+ * and column, then all remaining tiles, each phase in parallel. A tile's working set fits in cache, and inner loops
+ * run over contiguous row segments. <br>
+ * A vertex lies on a negative cycle iff its distance to itself ends up negative.
+ */
+public class FloydWarshall {
+
+    private static final int BLOCK = 64;
+    private static final int MAX_V = 46_340;    // V * V must fit in an int
+
+    private final int V;
+    private final double[] dist;
+    private final int[] next;       // next[s * V + t] = vertex after s on the path to t, -1 if none
+    private final boolean negativeCycle;
+
+    public FloydWarshall(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (G.V() > MAX_V) throw new IllegalArgumentException("Too many vertices for a V x V matrix: " + G.V());
+
+        this.V = G.V();
+        this.dist = new double[V * V];
+        this.next = new int[V * V];
+
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(next, -1);
+
+        for (int v = 0; v < V; v++) {
+            dist[v * V + v] = 0.0;
+            next[v * V + v] = v;
+        }
+
+        for (DirectedEdge e : G.edges()) {
+            int i = e.from() * V + e.to();
+
+            if (e.weight() < dist[i]) {
+                dist[i] = e.weight();
+                next[i] = e.to();
+            }
+        }
+
+        int blocks = (V + BLOCK - 1) / BLOCK;
+
+        for (int kb = 0; kb < blocks; kb++) {
+            int k = kb;
+
+            update(kb, kb, kb);
+
+            IntStream.range(0, blocks).parallel().filter(b -> b != k).forEach(b -> {
+                update(k, b, k);    // tiles in row kb
+                update(b, k, k);    // tiles in column kb
+            });
+
+            IntStream.range(0, blocks * blocks).parallel().forEach(ij -> {
+                int ib = ij / blocks;
+                int jb = ij % blocks;
+
+                if (ib != k && jb != k) update(ib, jb, k);
+            });
+        }
+
+        boolean cycle = false;
+
+        for (int v = 0; v < V; v++) {
+            if (dist[v * V + v] < 0) cycle = true;
+        }
+
+        this.negativeCycle = cycle;
+    }
+
+    // relaxes tile (ib, jb) through the intermediate vertices of block kb
+    private void update(int ib, int jb, int kb) {
+        int iEnd = Math.min(V, (ib + 1) * BLOCK);
+        int jStart = jb * BLOCK;
+        int jEnd = Math.min(V, jStart + BLOCK);
+        int kEnd = Math.min(V, (kb + 1) * BLOCK);
+
+        for (int k = kb * BLOCK; k < kEnd; k++) {
+            int rowK = k * V;
+
+            for (int i = ib * BLOCK; i < iEnd; i++) {
+                int rowI = i * V;
+                double dik = dist[rowI + k];
+
+                if (dik == Double.POSITIVE_INFINITY) continue;
+
+                int hop = next[rowI + k];
+
+                for (int j = jStart; j < jEnd; j++) {
+                    double pathWeight = dik + dist[rowK + j];
+
+                    if (pathWeight < dist[rowI + j]) {
+                        dist[rowI + j] = pathWeight;
+                        next[rowI + j] = hop;
+                    }
+                }
+            }
+        }
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    public int V() { return V; }
+
+    /**
+     * {@code dist()} - Shortest-path distance from {@code s} to {@code t}; not meaningful when there is a negative
+     * cycle.
+     * @param s source vertex
+     * @param t destination vertex
+     * @return the distance, {@code Double.POSITIVE_INFINITY} if there is no path
+     */
+    public double dist(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+
+        return dist[s * V + t];
+    }
+
+    public boolean hasPath(int s, int t) {
+        return dist(s, t) < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * {@code pathTo()} - Vertices of a shortest path, reconstructed from the next-hop matrix.
+     * @param s source vertex
+     * @param t destination vertex
+     * @return the path, {@code s} first and {@code t} last, or {@code null} if there is no path
+     * @throws UnsupportedOperationException if the digraph has a negative cycle
+     */
+    public int[] pathTo(int s, int t) {
+        if (!hasPath(s, t)) return null;
+        if (negativeCycle) throw new UnsupportedOperationException("Negative cycle exists");
+
+        int[] path = new int[V];
+        int length = 0;
+
+        for (int v = s; v != t; v = next[v * V + t]) path[length++] = v;
+
+        path[length++] = t;
+
+        return Arrays.copyOf(path, length);
+    }
+
+    public boolean hasNegativeCycle() { return negativeCycle; }
+
+    /**
+     * {@code isOnNegativeCycle()} - Whether {@code v} lies on a negative cycle, read off the diagonal.
+     * @param v the vertex
+     * @return {@code true} if the distance from {@code v} to itself is negative
+     */
+    public boolean isOnNegativeCycle(int v) {
+        return dist(v, v) < 0;
+    }
+
+    private static EdgeWeightedDigraph randomDense(int V, double density, Random random) {
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(V);
+
+        for (int v = 0; v < V; v++) {
+            for (int w = 0; w < V; w++) {
+                if (v != w && random.nextDouble() < density) G.addEdge(new DirectedEdge(v, w, random.nextDouble()));
+            }
+        }
+
+        return G;
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            FloydWarshall fw = new FloydWarshall(GraphLoader.load(args[0]));
+
+            if (fw.hasNegativeCycle()) {
+                System.out.println("Negative cycle exists");
+                return;
+            }
+
+            for (int t = 0; t < fw.V(); t++) {
+                System.out.printf("0 to %d (%.2f): %s%n", t, fw.dist(0, t), Arrays.toString(fw.pathTo(0, t)));
+            }
+
+            return;
+        }
+
+        // benchmark: all pairs by Floyd-Warshall vs. one DijkstraSP per vertex, on random graphs of growing density
+        Random random = new Random(17);
+
+        for (int V : new int[] { 250, 500, 1000 }) {
+            for (double density : new double[] { 0.01, 0.1, 0.3 }) {
+                EdgeWeightedDigraph G = randomDense(V, density, random);
+
+                long start = System.nanoTime();
+                FloydWarshall fw = new FloydWarshall(G);
+                long fwTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                double check = 0.0;
+
+                for (int s = 0; s < V; s++) {
+                    DijkstraSP sp = new DijkstraSP(G, s);
+                    if (sp.hasPathTo(V - 1 - s)) check += Math.abs(sp.distTo(V - 1 - s) - fw.dist(s, V - 1 - s));
+                }
+
+                long dijkstraTime = System.nanoTime() - start;
+
+                System.out.printf("V = %4d, E = %7d: Floyd-Warshall %5d ms, V x DijkstraSP %5d ms (difference %.2g)%n",
+                        V, G.E(), fwTime / 1_000_000, dijkstraTime / 1_000_000, check);
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package org.kotopka;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code FrozenDigraph} - Read-only snapshot of an edge-weighted digraph. All state is final and never changes after
+ * construction, so a single instance can be published once and then shared by any number of solver threads without
+ * synchronization. <br>
+ * Derived data that solvers keep recomputing (reverse adjacency, topological order, DAG check, negative weight check)
+ * is computed at most once per snapshot and shared by all readers.
+ */
+public class FrozenDigraph implements Digraph {
+
+    private final int V;
+    private final int[] start;
+    private final DirectedEdge[] edges;     // edges leaving v are edges[start[v]] to edges[start[v + 1] - 1]
+    private final boolean hasNegativeWeights;
+    private final double minWeight;
+    private final double maxWeight;
+    private final boolean integerWeights;
+
+    // lazily computed, immutable once set; volatile so that a fully built value is seen by other threads
+    private volatile FrozenDigraph reverse;
+    private volatile int[] topologicalOrder;    // empty if the digraph has a cycle
+
+    /**
+     * {@code FrozenDigraph} Constructor. Copies the structure of {@code G}; the {@code DirectedEdge} objects
+     * themselves are immutable and are shared with {@code G}.
+     * @param G the digraph to snapshot
+     */
+    public FrozenDigraph(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        this.V = G.V();
+        this.start = new int[V + 1];
+
+        for (int v = 0; v < V; v++) {
+            int degree = 0;
+
+            for (DirectedEdge ignored : G.adj(v)) degree++;
+
+            start[v + 1] = start[v] + degree;
+        }
+
+        this.edges = new DirectedEdge[start[V]];
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        boolean integer = true;
+        int i = 0;
+
+        for (int v = 0; v < V; v++) {
+            for (DirectedEdge e : G.adj(v)) {
+                edges[i++] = e;
+                min = Math.min(min, e.weight());
+                max = Math.max(max, e.weight());
+                integer &= e.weight() == Math.rint(e.weight());
+            }
+        }
+
+        this.hasNegativeWeights = min < 0.0;
+        this.minWeight = min;
+        this.maxWeight = max;
+        this.integerWeights = integer;
+    }
+
+    // the reverse of G, which has the same weights
+    private FrozenDigraph(int V, int[] start, DirectedEdge[] edges, FrozenDigraph G) {
+        this.V = V;
+        this.start = start;
+        this.edges = edges;
+        this.hasNegativeWeights = G.hasNegativeWeights;
+        this.minWeight = G.minWeight;
+        this.maxWeight = G.maxWeight;
+        this.integerWeights = G.integerWeights;
+    }
+
+    /**
+     * {@code of()} - Returns a frozen snapshot of {@code G}; a {@code FrozenDigraph} is returned as-is.
+     * @param G the digraph
+     * @return frozen snapshot of {@code G}
+     */
+    public static FrozenDigraph of(Digraph G) {
+        if (G instanceof FrozenDigraph) return (FrozenDigraph) G;
+
+        return new FrozenDigraph(G);
+    }
+
+    /**
+     * {@code addEdge()} - Not supported, a {@code FrozenDigraph} is read-only.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(DirectedEdge e) {
+        throw new UnsupportedOperationException("FrozenDigraph is read-only");
+    }
+
+    @Override
+    public Iterable<DirectedEdge> adj(int v) {
+        validateVertex(v);
+
+        return () -> new EdgeIterator(start[v], start[v + 1]);
+    }
+
+    @Override
+    public int V() { return V; }
+
+    @Override
+    public int E() { return edges.length; }
+
+    @Override
+    public Iterable<DirectedEdge> edges() {
+        return () -> new EdgeIterator(0, edges.length);
+    }
+
+    /**
+     * {@code outdegree()} - The number of edges leaving {@code v}.
+     * @param v the vertex
+     * @return the out-degree of {@code v}
+     */
+    public int outdegree(int v) {
+        validateVertex(v);
+
+        return start[v + 1] - start[v];
+    }
+
+    /**
+     * {@code hasNegativeWeights()} - Returns {@code true} if any edge has a negative weight, i.e. Dijkstra's
+     * algorithm cannot be used.
+     * @return boolean {@code true} if a negative edge weight exists, {@code false} otherwise
+     */
+    public boolean hasNegativeWeights() { return hasNegativeWeights; }
+
+    @Override
+    public double minWeight() { return minWeight; }
+
+    @Override
+    public double maxWeight() { return maxWeight; }
+
+    @Override
+    public boolean hasIntegerWeights() { return integerWeights; }
+
+    /**
+     * {@code reverse()} - The frozen digraph with every edge reversed. Computed once and shared.
+     * @return the reverse digraph
+     */
+    public FrozenDigraph reverse() {
+        FrozenDigraph r = reverse;
+
+        if (r == null) {
+            synchronized (this) {
+                r = reverse;
+
+                if (r == null) {
+                    r = computeReverse();
+                    reverse = r;
+                }
+            }
+        }
+
+        return r;
+    }
+
+    private FrozenDigraph computeReverse() {
+        int[] rstart = new int[V + 1];
+
+        for (DirectedEdge e : edges) {
+            rstart[e.to() + 1]++;
+        }
+
+        for (int v = 0; v < V; v++) {
+            rstart[v + 1] += rstart[v];
+        }
+
+        int[] next = new int[V];
+        DirectedEdge[] redges = new DirectedEdge[edges.length];
+
+        System.arraycopy(rstart, 0, next, 0, V);
+
+        for (DirectedEdge e : edges) {
+            redges[next[e.to()]++] = new DirectedEdge(e.to(), e.from(), e.weight());
+        }
+
+        FrozenDigraph r = new FrozenDigraph(V, rstart, redges, this);
+        r.reverse = this;
+
+        return r;
+    }
+
+    /**
+     * {@code isDAG()} - Returns {@code true} if this digraph has no directed cycle. Computed once and shared.
+     * @return boolean {@code true} if this digraph is a DAG, {@code false} otherwise
+     */
+    @Override
+    public boolean isDAG() {
+        return topologicalOrder().length == V;
+    }
+
+    /**
+     * {@code order()} - The vertices in topological order. Computed once and shared.
+     * @return an {@code Iterable<Integer>} of all vertices in topological order
+     * @throws UnsupportedOperationException if this digraph is not a DAG
+     */
+    public Iterable<Integer> order() {
+        int[] order = topologicalOrder();
+
+        if (order.length != V) throw new UnsupportedOperationException("Graph must be a DAG");
+
+        return () -> new Iterator<>() {
+            int i = 0;
+
+            @Override
+            public boolean hasNext() { return i < order.length; }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+                return order[i++];
+            }
+        };
+    }
+
+    private int[] topologicalOrder() {
+        int[] order = topologicalOrder;
+
+        if (order == null) {
+            synchronized (this) {
+                order = topologicalOrder;
+
+                if (order == null) {
+                    order = computeTopologicalOrder();
+                    topologicalOrder = order;
+                }
+            }
+        }
+
+        return order;
+    }
+
+    // Kahn's algorithm; iterative, so deep DAGs cannot overflow the stack
+    private int[] computeTopologicalOrder() {
+        int[] indegree = new int[V];
+
+        for (DirectedEdge e : edges) {
+            indegree[e.to()]++;
+        }
+
+        int[] order = new int[V];
+        int head = 0;
+        int tail = 0;
+
+        for (int v = 0; v < V; v++) {
+            if (indegree[v] == 0) order[tail++] = v;
+        }
+
+        while (head < tail) {
+            int v = order[head++];
+
+            for (int i = start[v]; i < start[v + 1]; i++) {
+                int w = edges[i].to();
+
+                if (--indegree[w] == 0) order[tail++] = w;
+            }
+        }
+
+        return tail == V ? order : new int[0];
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    private class EdgeIterator implements Iterator<DirectedEdge> {
+
+        int i;
+        final int end;
+
+        EdgeIterator(int i, int end) {
+            this.i = i;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() { return i < end; }
+
+        @Override
+        public DirectedEdge next() {
+            if (!hasNext()) throw new NoSuchElementException("Call to next() when iterator has no elements");
+
+            return edges[i++];
+        }
+    }
+
+    /**
+     * <code>toString()</code> - String representation of this graph
+     * @return String
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("[");
+
+        for (DirectedEdge e : edges) {
+            sb.append("(").append(e).append("), ");
+        }
+
+        if (sb.length() > 2) {
+            sb.setLength(sb.length() - 2);
+        }
+
+        sb.append("]");
+
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        FrozenDigraph G = GraphLoader.load(args[0]).freeze();
+
+        System.out.println("DAG? " + G.isDAG() + ", negative weights? " + G.hasNegativeWeights());
+
+        // every thread shares the same snapshot, no locking needed
+        Thread[] workers = new Thread[4];
+
+        for (int t = 0; t < workers.length; t++) {
+            int source = t % G.V();
+
+            workers[t] = new Thread(() -> {
+                double total = 0.0;
+
+                if (G.isDAG()) {
+                    AcyclicSP sp = new AcyclicSP(G, source);
+                    for (int v = 0; v < G.V(); v++) if (sp.hasPathTo(v)) total += sp.distTo(v);
+                } else if (!G.hasNegativeWeights()) {
+                    DijkstraSP sp = new DijkstraSP(G, source);
+                    for (int v = 0; v < G.V(); v++) if (sp.hasPathTo(v)) total += sp.distTo(v);
+                } else {
+                    BellmanFordSP sp = new BellmanFordSP(G, source);
+                    for (int v = 0; v < G.V(); v++) if (sp.hasPathTo(v)) total += sp.distTo(v);
+                }
+
+                System.out.println("source " + source + ": sum of distances " + total);
+            });
+            workers[t].start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package org.kotopka;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class GraphLoader {
 
+    private static final int CSR_MAGIC = 0x43535231;   // "CSR1"
+    private static final int CSR_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;   // largest array most VMs will allocate
+
     private static EdgeWeightedDigraph ewd = null;
 
     public static EdgeWeightedDigraph load(String filename) {
@@ -26,4 +38,286 @@ public class GraphLoader {
         return ewd;
     }
 
+    /**
+     * {@code loadReordered()} - Loads a digraph and renumbers its vertices for better memory locality.
+     * @param filename the graph file
+     * @param ordering the vertex numbering strategy
+     * @return the renumbered digraph along with the mapping back to the vertex ids used in the file
+     */
+    public static VertexReordering loadReordered(String filename, VertexReordering.Ordering ordering) {
+        return new VertexReordering(load(filename), ordering);
+    }
+
+    /**
+     * {@code loadExternal()} - Loads an edge list whose vertices are arbitrary external ids rather than dense
+     * {@code 0..V-1} ints, in a single pass over the file. Each line is {@code from to [weight]}; lines with fewer
+     * than two fields (such as the vertex/edge count header) and lines starting with {@code #} or {@code %} are
+     * skipped. Lines without a weight become "unweighted" edges. <br>
+     * External ids are interned into {@code ids} in order of first appearance, which is then used to translate
+     * vertices back for path output. <br>
+     * An {@link EdgeWeightedDigraph} costs a {@code Bag} per vertex and an object pair per edge, meant for small
+     * inputs; large edge lists should use {@code loadExternalCompact()}.
+     * @param filename the edge list file
+     * @param ids the id map to intern into, e.g. a {@link LongIdMap} or {@link StringIdMap}
+     * @return the digraph over the dense vertex ids
+     * @throws IllegalArgumentException if the file has more edges than an array can hold
+     */
+    public static EdgeWeightedDigraph loadExternal(String filename, VertexIdMap ids) {
+        EdgeList edges = readEdgeList(filename, ids);
+
+        if (edges == null) return null;
+
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(Math.max(ids.size(), 1));
+
+        for (int i = 0; i < edges.count; i++) {
+            G.addEdge(new DirectedEdge(edges.from[i], edges.to[i], edges.weight[i]));
+        }
+
+        return G;
+    }
+
+    /**
+     * {@code loadExternalCompact()} - Loads an edge list with external ids like {@code loadExternal()}, straight into
+     * CSR form: the parsed edges are counting-sorted by origin into the offset, destination and weight arrays of a
+     * {@link CompactDigraph}, about 12 bytes per edge and no objects. Edges of each vertex keep their file order.
+     * @param filename the edge list file
+     * @param ids the id map to intern into, e.g. a {@link LongIdMap} or {@link StringIdMap}
+     * @return the compact digraph over the dense vertex ids
+     * @throws IllegalArgumentException if the file has more edges than an array can hold
+     */
+    public static CompactDigraph loadExternalCompact(String filename, VertexIdMap ids) {
+        EdgeList edges = readEdgeList(filename, ids);
+
+        if (edges == null) return null;
+
+        int V = Math.max(ids.size(), 1);
+        int E = edges.count;
+        int[] start = new int[V + 1];
+
+        for (int i = 0; i < E; i++) start[edges.from[i] + 1]++;
+
+        for (int v = 0; v < V; v++) start[v + 1] += start[v];
+
+        int[] next = Arrays.copyOf(start, V);
+        int[] to = new int[E];
+        double[] weight = new double[E];
+
+        for (int i = 0; i < E; i++) {
+            int slot = next[edges.from[i]]++;
+
+            to[slot] = edges.to[i];
+            weight[slot] = edges.weight[i];
+        }
+
+        return new CompactDigraph(V, start, to, weight);
+    }
+
+    // parsed edges, in parallel primitive arrays that may be longer than count
+    private static class EdgeList {
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        double[] weight = new double[1024];
+        int count;
+    }
+
+    private static EdgeList readEdgeList(String filename, VertexIdMap ids) {
+        if (ids == null) throw new IllegalArgumentException("Id map cannot be null");
+
+        EdgeList edges = new EdgeList();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename), 1 << 16)) {
+            String[] fields = new String[3];
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#") || line.startsWith("%")) continue;
+
+                int count = split(line, fields);
+
+                if (count < 2) continue;
+
+                if (edges.count == edges.from.length) {
+                    if (edges.count == MAX_ARRAY_SIZE) {
+                        throw new IllegalArgumentException("Too many edges in " + filename + ", at most " + MAX_ARRAY_SIZE);
+                    }
+
+                    int capacity = (int) Math.min((long) edges.count << 1, MAX_ARRAY_SIZE);
+                    edges.from = Arrays.copyOf(edges.from, capacity);
+                    edges.to = Arrays.copyOf(edges.to, capacity);
+                    edges.weight = Arrays.copyOf(edges.weight, capacity);
+                }
+
+                edges.from[edges.count] = ids.intern(fields[0]);
+                edges.to[edges.count] = ids.intern(fields[1]);
+                edges.weight[edges.count] = count > 2 ? Double.parseDouble(fields[2]) : 0.0;
+                edges.count++;
+            }
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        return edges;
+    }
+
+    /**
+     * {@code loadCompact()} - Loads a digraph straight into CSR form. Files ending in {@code .csr} are read in the
+     * binary format written by {@code saveCompact()}, which needs no parsing; anything else is read as a text file
+     * through {@code load()} and converted.
+     * @param filename the graph file
+     * @return the compact digraph
+     */
+    public static CompactDigraph loadCompact(String filename) {
+        if (!filename.endsWith(".csr")) return CompactDigraph.of(load(filename));
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CSR_BUFFER_SIZE);
+
+            buffer.limit(12);
+            fill(channel, buffer);
+
+            if (buffer.getInt() != CSR_MAGIC) throw new IllegalArgumentException("Not a CSR graph file: " + filename);
+
+            int V = buffer.getInt();
+            int E = buffer.getInt();
+            int[] start = new int[V + 1];
+            int[] to = new int[E];
+            double[] weight = new double[E];
+
+            readInts(channel, buffer, start);
+            readInts(channel, buffer, to);
+            readDoubles(channel, buffer, weight);
+
+            return new CompactDigraph(V, start, to, weight);
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * {@code saveCompact()} - Writes a digraph in the binary CSR format read by {@code loadCompact()}: a header of
+     * three ints (magic, {@code V}, {@code E}) followed by the raw offset, destination and weight arrays.
+     * @param G the digraph
+     * @param filename the file to write, conventionally ending in {@code .csr}
+     * @throws IOException if writing fails
+     */
+    public static void saveCompact(CompactDigraph G, String filename) throws IOException {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CSR_BUFFER_SIZE);
+
+            buffer.putInt(CSR_MAGIC).putInt(G.V()).putInt(G.E());
+
+            for (int v = 0; v <= G.V(); v++) {
+                if (buffer.remaining() < Integer.BYTES) drain(channel, buffer);
+                buffer.putInt(v < G.V() ? G.start(v) : G.E());
+            }
+
+            for (int e = 0; e < G.E(); e++) {
+                if (buffer.remaining() < Integer.BYTES) drain(channel, buffer);
+                buffer.putInt(G.to(e));
+            }
+
+            for (int e = 0; e < G.E(); e++) {
+                if (buffer.remaining() < Double.BYTES) drain(channel, buffer);
+                buffer.putDouble(G.weight(e));
+            }
+
+            drain(channel, buffer);
+        }
+    }
+
+    private static void readInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            int count = Math.min(values.length - i, buffer.capacity() / Integer.BYTES);
+
+            buffer.clear().limit(count * Integer.BYTES);
+            fill(channel, buffer);
+            buffer.asIntBuffer().get(values, i, count);
+            i += count;
+        }
+    }
+
+    private static void readDoubles(FileChannel channel, ByteBuffer buffer, double[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            int count = Math.min(values.length - i, buffer.capacity() / Double.BYTES);
+
+            buffer.clear().limit(count * Double.BYTES);
+            fill(channel, buffer);
+            buffer.asDoubleBuffer().get(values, i, count);
+            i += count;
+        }
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new IOException("Unexpected end of file");
+        }
+
+        buffer.flip();
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) channel.write(buffer);
+
+        buffer.clear();
+    }
+
+    // splits line on whitespace into at most fields.length fields, returns the number of fields found
+    private static int split(String line, String[] fields) {
+        int count = 0;
+        int i = 0;
+        int n = line.length();
+
+        while (count < fields.length) {
+            while (i < n && Character.isWhitespace(line.charAt(i))) i++;
+
+            if (i == n) break;
+
+            int start = i;
+
+            while (i < n && !Character.isWhitespace(line.charAt(i))) i++;
+
+            fields[count++] = line.substring(start, i);
+        }
+
+        return count;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: GraphLoader <edge list> <source id> <destination id>");
+            System.exit(-1);
+        }
+
+        StringIdMap ids = new StringIdMap();
+        CompactDigraph G = loadExternalCompact(args[0], ids);
+
+        int source = ids.id(args[1]);
+        int destination = ids.id(args[2]);
+
+        if (source < 0 || destination < 0) {
+            System.out.println("Unknown vertex id");
+            System.exit(-1);
+        }
+
+        DijkstraSP sp = new DijkstraSP(G, source);
+
+        if (sp.hasPathTo(destination)) {
+            System.out.println("distTo " + args[2] + " " + sp.distTo(destination));
+            for (DirectedEdge e : sp.pathTo(destination)) {
+                System.out.println(ids.externalId(e.from()) + "->" + ids.externalId(e.to()) + " " + e.weight());
+            }
+        } else {
+            System.out.println("No path to " + args[2]);
+        }
+    }
+
 }
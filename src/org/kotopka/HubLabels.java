@@ -0,0 +1,513 @@
+package org.kotopka;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * {@code HubLabels} - Distance oracle using hub labeling: every vertex {@code v} gets an out-label of
+ * (hub, distance from {@code v} to hub) and an in-label of (hub, distance from hub to {@code v}) such that for every
+ * pair some shortest {@code s -> t} path passes through a hub common to out({@code s}) and in({@code t}).
+ * {@code distance(s, t)} is then a merge of two sorted arrays, with no search at all. <br>
+ * Labels are computed with pruned landmark labeling: one forward and one backward Dijkstra search per vertex, in
+ * order of importance, each search pruned wherever the labels built so far already give the right distance. The
+ * order decides the label sizes; by default vertices with the highest total degree go first. Preprocessing is heavy,
+ * queries take microseconds. <br>
+ * Labels are held as CSR-style primitive arrays, sorted by hub rank, and can be saved to a file that {@code load()}
+ * reads back through a memory mapping. Each entry also keeps the next vertex towards its hub, so paths can be
+ * unpacked without the graph.
+ */
+public class HubLabels {
+
+    private static final int MAGIC = 0x48554231;    // "HUB1"
+
+    private final int V;
+    private final int[] vertexAt;   // hub rank -> vertex
+    private final Labels out;       // hubs reachable from each vertex
+    private final Labels in;        // hubs each vertex is reachable from
+
+    // one label set in CSR form, entries of each vertex sorted by hub rank
+    private static class Labels {
+        final int[] start;
+        final int[] hub;
+        final double[] dist;
+        final int[] next;   // neighbour of the vertex on its shortest path to or from the hub, -1 at the hub itself
+
+        Labels(int[] start, int[] hub, double[] dist, int[] next) {
+            this.start = start;
+            this.hub = hub;
+            this.dist = dist;
+            this.next = next;
+        }
+
+        // index of the entry for hub h in the label of v, or -1
+        int find(int v, int h) {
+            int i = Arrays.binarySearch(hub, start[v], start[v + 1], h);
+
+            return i < 0 ? -1 : i;
+        }
+    }
+
+    // growable per-vertex labels used while building
+    private static class LabelBuilder {
+        final int[][] hub;
+        final double[][] dist;
+        final int[][] next;
+        final int[] size;
+
+        LabelBuilder(int V) {
+            this.hub = new int[V][];
+            this.dist = new double[V][];
+            this.next = new int[V][];
+            this.size = new int[V];
+
+            for (int v = 0; v < V; v++) {
+                hub[v] = new int[4];
+                dist[v] = new double[4];
+                next[v] = new int[4];
+            }
+        }
+
+        void add(int v, int h, double d, int n) {
+            int i = size[v]++;
+
+            if (i == hub[v].length) {
+                hub[v] = Arrays.copyOf(hub[v], i << 1);
+                dist[v] = Arrays.copyOf(dist[v], i << 1);
+                next[v] = Arrays.copyOf(next[v], i << 1);
+            }
+
+            hub[v][i] = h;
+            dist[v][i] = d;
+            next[v][i] = n;
+        }
+
+        Labels pack() {
+            int V = size.length;
+            int[] start = new int[V + 1];
+
+            for (int v = 0; v < V; v++) start[v + 1] = start[v] + size[v];
+
+            int[] packedHub = new int[start[V]];
+            double[] packedDist = new double[start[V]];
+            int[] packedNext = new int[start[V]];
+
+            for (int v = 0; v < V; v++) {
+                System.arraycopy(hub[v], 0, packedHub, start[v], size[v]);
+                System.arraycopy(dist[v], 0, packedDist, start[v], size[v]);
+                System.arraycopy(next[v], 0, packedNext, start[v], size[v]);
+            }
+
+            return new Labels(start, packedHub, packedDist, packedNext);
+        }
+    }
+
+    /**
+     * {@code HubLabels} Constructor. Uses the default order, highest total degree first.
+     * @param G the digraph, edge weights must be non-negative
+     */
+    public HubLabels(Digraph G) {
+        this(G, degreeOrder(CompactDigraph.of(G)));
+    }
+
+    /**
+     * {@code HubLabels} Constructor.
+     * @param G the digraph, edge weights must be non-negative
+     * @param order every vertex exactly once, most important first
+     */
+    public HubLabels(Digraph G, int[] order) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        CompactDigraph forward = CompactDigraph.of(G);
+        CompactDigraph backward = forward.reverse();
+
+        this.V = forward.V();
+        this.vertexAt = validateOrder(order, V);
+
+        for (int e = 0; e < forward.E(); e++) {
+            if (forward.weight(e) < 0) throw new IllegalArgumentException("Negative edge weight " + forward.weight(e));
+        }
+
+        LabelBuilder outBuilder = new LabelBuilder(V);
+        LabelBuilder inBuilder = new LabelBuilder(V);
+        PrunedSearch search = new PrunedSearch(V);
+
+        for (int rank = 0; rank < V; rank++) {
+            int root = vertexAt[rank];
+
+            search.run(forward, root, rank, outBuilder, inBuilder);     // adds rank to in-labels
+            search.run(backward, root, rank, inBuilder, outBuilder);    // adds rank to out-labels
+        }
+
+        this.out = outBuilder.pack();
+        this.in = inBuilder.pack();
+    }
+
+    private HubLabels(int[] vertexAt, Labels out, Labels in) {
+        this.V = vertexAt.length;
+        this.vertexAt = vertexAt;
+        this.out = out;
+        this.in = in;
+    }
+
+    private static int[] validateOrder(int[] order, int V) {
+        if (order == null || order.length != V) throw new IllegalArgumentException("Order must list all " + V + " vertices");
+
+        boolean[] seen = new boolean[V];
+
+        for (int v : order) {
+            if (v < 0 || v >= V || seen[v]) throw new IllegalArgumentException("Order is not a permutation");
+
+            seen[v] = true;
+        }
+
+        return order.clone();
+    }
+
+    /**
+     * {@code degreeOrder()} - Vertices sorted by total (in + out) degree, highest first.
+     * @param G the digraph
+     * @return the order
+     */
+    public static int[] degreeOrder(CompactDigraph G) {
+        int[] degree = new int[G.V()];
+
+        for (int v = 0; v < G.V(); v++) {
+            degree[v] += G.end(v) - G.start(v);
+
+            for (int e = G.start(v); e < G.end(v); e++) degree[G.to(e)]++;
+        }
+
+        return IntStream.range(0, G.V()).boxed()
+                .sorted((v, w) -> degree[w] != degree[v] ? Integer.compare(degree[w], degree[v]) : Integer.compare(v, w))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    // Dijkstra from a root that skips every vertex whose distance the existing labels already cover
+    private static class PrunedSearch {
+        final double[] distTo;
+        final int[] parent;
+        final double[] rootDist;    // distance between the root and each hub rank, from the root's own label
+        final int[] touched;
+        final IndexDaryMinPQ<Double> pq;
+
+        PrunedSearch(int V) {
+            this.distTo = new double[V];
+            this.parent = new int[V];
+            this.rootDist = new double[V];
+            this.touched = new int[V];
+            this.pq = new IndexDaryMinPQ<>(IndexDaryMinPQ.FOUR_WAY_HEAP, V);
+
+            Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+            Arrays.fill(rootDist, Double.POSITIVE_INFINITY);
+        }
+
+        // searches G from root, adding (rank, distance) to the reached labels; rootSide is the root's label that
+        // pairs with the reached labels in a query
+        void run(CompactDigraph G, int root, int rank, LabelBuilder rootSide, LabelBuilder reached) {
+            for (int i = 0; i < rootSide.size[root]; i++) rootDist[rootSide.hub[root][i]] = rootSide.dist[root][i];
+
+            int touchedCount = 0;
+
+            distTo[root] = 0.0;
+            parent[root] = -1;
+            touched[touchedCount++] = root;
+            pq.insert(root, 0.0);
+
+            while (!pq.isEmpty()) {
+                int u = pq.delMin();
+                double d = distTo[u];
+
+                if (covered(reached, u, d)) continue;
+
+                reached.add(u, rank, d, parent[u]);
+
+                for (int e = G.start(u); e < G.end(u); e++) {
+                    int w = G.to(e);
+                    double pathWeight = d + G.weight(e);
+
+                    if (pathWeight < distTo[w]) {
+                        if (distTo[w] == Double.POSITIVE_INFINITY) touched[touchedCount++] = w;
+
+                        distTo[w] = pathWeight;
+                        parent[w] = u;
+
+                        if (pq.contains(w)) {
+                            pq.changeKey(w, pathWeight);
+                        } else {
+                            pq.insert(w, pathWeight);
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) distTo[touched[i]] = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < rootSide.size[root]; i++) rootDist[rootSide.hub[root][i]] = Double.POSITIVE_INFINITY;
+        }
+
+        private boolean covered(LabelBuilder reached, int u, double d) {
+            int[] hubs = reached.hub[u];
+            double[] dists = reached.dist[u];
+
+            for (int i = 0; i < reached.size[u]; i++) {
+                if (rootDist[hubs[i]] + dists[i] <= d) return true;
+            }
+
+            return false;
+        }
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    public int V() { return V; }
+
+    /**
+     * {@code distance()} - Shortest-path distance from {@code s} to {@code t}.
+     * @param s source vertex
+     * @param t destination vertex
+     * @return the distance, {@code Double.POSITIVE_INFINITY} if there is no path
+     */
+    public double distance(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+
+        int i = bestEntry(s, t);
+
+        return i < 0 ? Double.POSITIVE_INFINITY : out.dist[i] + in.dist[in.find(t, out.hub[i])];
+    }
+
+    // index of the out-label entry of s for the hub giving the shortest s -> t distance, or -1 if none
+    private int bestEntry(int s, int t) {
+        int i = out.start[s];
+        int j = in.start[t];
+        int iEnd = out.start[s + 1];
+        int jEnd = in.start[t + 1];
+        int best = -1;
+        double bestDist = Double.POSITIVE_INFINITY;
+
+        while (i < iEnd && j < jEnd) {
+            int hi = out.hub[i];
+            int hj = in.hub[j];
+
+            if (hi == hj) {
+                double d = out.dist[i] + in.dist[j];
+
+                if (d < bestDist) {
+                    bestDist = d;
+                    best = i;
+                }
+
+                i++;
+                j++;
+            } else if (hi < hj) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * {@code pathTo()} - Vertices of a shortest path from {@code s} to {@code t}, unpacked from the labels.
+     * @param s source vertex
+     * @param t destination vertex
+     * @return the path, {@code s} first and {@code t} last, or {@code null} if there is no path
+     */
+    public int[] pathTo(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+
+        int best = bestEntry(s, t);
+
+        if (best < 0) return null;
+
+        int h = out.hub[best];
+        int hub = vertexAt[h];
+        int[] path = new int[V];
+        int length = 0;
+
+        // s -> hub, following the out-labels forwards
+        for (int u = s; u != hub; u = out.next[out.find(u, h)]) path[length++] = u;
+
+        // hub -> t, following the in-labels backwards from t
+        int end = V;
+
+        for (int u = t; u != hub; u = in.next[in.find(u, h)]) path[--end] = u;
+
+        path[length++] = hub;
+        System.arraycopy(path, end, path, length, V - end);
+
+        return Arrays.copyOf(path, length + V - end);
+    }
+
+    /**
+     * {@code averageLabelSize()} - Mean number of entries per label, the dominant query cost.
+     * @return average of the in- and out-label sizes
+     */
+    public double averageLabelSize() { return (out.hub.length + in.hub.length) / (2.0 * V); }
+
+    /**
+     * {@code bytes()} - Size of the label arrays.
+     * @return size in bytes
+     */
+    public long bytes() {
+        return 4L * V + 2 * 4L * (V + 1) + 16L * (out.hub.length + in.hub.length);
+    }
+
+    /**
+     * {@code save()} - Writes the labels to a file for {@code load()}.
+     * @param filename the file to write
+     * @throws IOException if writing fails
+     */
+    public void save(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+            buffer.putInt(MAGIC).putInt(V).putInt(out.hub.length).putInt(in.hub.length);
+
+            writeInts(channel, buffer, vertexAt);
+
+            for (Labels labels : new Labels[] { out, in }) {
+                writeInts(channel, buffer, labels.start);
+                writeInts(channel, buffer, labels.hub);
+                writeInts(channel, buffer, labels.next);
+                writeDoubles(channel, buffer, labels.dist);
+            }
+
+            drain(channel, buffer);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int value : values) {
+            if (buffer.remaining() < Integer.BYTES) drain(channel, buffer);
+            buffer.putInt(value);
+        }
+    }
+
+    private static void writeDoubles(FileChannel channel, ByteBuffer buffer, double[] values) throws IOException {
+        for (double value : values) {
+            if (buffer.remaining() < Double.BYTES) drain(channel, buffer);
+            buffer.putDouble(value);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) channel.write(buffer);
+
+        buffer.clear();
+    }
+
+    /**
+     * {@code load()} - Reads labels written by {@code save()}, through a memory mapping of the file.
+     * @param filename the file to read
+     * @return the hub labels
+     * @throws IOException if reading fails
+     */
+    public static HubLabels load(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 16);
+
+            if (header.getInt() != MAGIC) throw new IllegalArgumentException("Not a hub label file: " + filename);
+
+            int V = header.getInt();
+            int[] entries = { header.getInt(), header.getInt() };
+            long[] position = { 16 };
+
+            int[] vertexAt = readInts(channel, position, V);
+            Labels[] labels = new Labels[2];
+
+            for (int k = 0; k < 2; k++) {
+                int[] start = readInts(channel, position, V + 1);
+                int[] hub = readInts(channel, position, entries[k]);
+                int[] next = readInts(channel, position, entries[k]);
+                double[] dist = readDoubles(channel, position, entries[k]);
+
+                labels[k] = new Labels(start, hub, dist, next);
+            }
+
+            return new HubLabels(vertexAt, labels[0], labels[1]);
+        }
+    }
+
+    private static int[] readInts(FileChannel channel, long[] position, int count) throws IOException {
+        int[] values = new int[count];
+
+        channel.map(FileChannel.MapMode.READ_ONLY, position[0], (long) count * Integer.BYTES).asIntBuffer().get(values);
+        position[0] += (long) count * Integer.BYTES;
+
+        return values;
+    }
+
+    private static double[] readDoubles(FileChannel channel, long[] position, int count) throws IOException {
+        double[] values = new double[count];
+
+        channel.map(FileChannel.MapMode.READ_ONLY, position[0], (long) count * Double.BYTES).asDoubleBuffer().get(values);
+        position[0] += (long) count * Double.BYTES;
+
+        return values;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+
+        long start = System.nanoTime();
+        HubLabels labels = new HubLabels(ewd);
+        long built = System.nanoTime() - start;
+
+        System.out.printf("Built labels in %d ms: %.1f entries per label, %d bytes%n",
+                built / 1_000_000, labels.averageLabelSize(), labels.bytes());
+
+        if (args.length > 1) {
+            labels.save(args[1]);
+            labels = load(args[1]);
+            System.out.println("Saved and reloaded " + args[1]);
+        }
+
+        Random random = new Random(11);
+        int checked = 0;
+
+        for (int i = 0; i < 20; i++) {
+            int s = random.nextInt(ewd.V());
+            DijkstraSP sp = new DijkstraSP(ewd, s);
+
+            for (int t = 0; t < ewd.V(); t++, checked++) {
+                if (Math.abs(sp.distTo(t) - labels.distance(s, t)) > 1e-9) {
+                    System.out.println("Mismatch " + s + " -> " + t + ": " + sp.distTo(t) + " vs " + labels.distance(s, t));
+                }
+            }
+        }
+
+        int queries = 1_000_000;
+        double sum = 0.0;
+
+        start = System.nanoTime();
+
+        for (int i = 0; i < queries; i++) {
+            double d = labels.distance(random.nextInt(ewd.V()), random.nextInt(ewd.V()));
+
+            if (d < Double.POSITIVE_INFINITY) sum += d;
+        }
+
+        System.out.printf("Checked %d distances against DijkstraSP; %d queries at %.3f us each (checksum %.1f)%n",
+                checked, queries, (System.nanoTime() - start) / 1e3 / queries, sum);
+    }
+}
@@ -0,0 +1,231 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * {@code LandmarkDistanceOracle} - Approximate distance oracle built from {@code 2k} {@code DijkstraSP} runs: for
+ * each of {@code k} landmark vertices {@code L}, the distances from {@code L} to every vertex and from every vertex to
+ * {@code L}. By the triangle inequality, for every landmark <br>
+ * {@code d(s, t) <= d(s, L) + d(L, t)} and {@code d(s, t) >= max(d(L, t) - d(L, s), d(s, L) - d(t, L))}, <br>
+ * so a query takes the best of {@code k} upper and {@code k} lower bounds, and the gap between them is the error
+ * bound for that query. More landmarks cost {@code 16k} bytes per vertex and give tighter bounds. <br>
+ * The {@code k} distances of each vertex are stored next to each other, vertex-major, so a query reads a few short
+ * contiguous runs of memory. Edge weights must be non-negative.
+ */
+public class LandmarkDistanceOracle {
+
+    private final int V;
+    private final int k;
+    private final int[] landmarks;
+    private final double[] toLandmark;      // toLandmark[v * k + i] = d(v, landmarks[i])
+    private final double[] fromLandmark;    // fromLandmark[v * k + i] = d(landmarks[i], v)
+
+    /**
+     * {@code LandmarkDistanceOracle} Constructor. Picks {@code k} landmarks spread out over the graph, each the vertex
+     * farthest from the landmarks chosen before it.
+     * @param G the digraph, edge weights must be non-negative
+     * @param k number of landmarks
+     */
+    public LandmarkDistanceOracle(Digraph G, int k) {
+        this(G, farthestLandmarks(CompactDigraph.of(G), k));
+    }
+
+    /**
+     * {@code LandmarkDistanceOracle} Constructor.
+     * @param G the digraph, edge weights must be non-negative
+     * @param landmarks the landmark vertices
+     */
+    public LandmarkDistanceOracle(Digraph G, int[] landmarks) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (landmarks == null || landmarks.length == 0) throw new IllegalArgumentException("Need at least one landmark");
+
+        CompactDigraph forward = CompactDigraph.of(G);
+        CompactDigraph backward = forward.reverse();
+
+        validateSize(forward.V(), landmarks.length);
+
+        this.V = forward.V();
+        this.k = landmarks.length;
+        this.landmarks = landmarks.clone();
+        this.toLandmark = new double[V * k];
+        this.fromLandmark = new double[V * k];
+
+        for (int L : landmarks) validateVertex(L);
+
+        IntStream.range(0, 2 * k).parallel().forEach(run -> {
+            int i = run % k;
+            boolean from = run < k;
+            DijkstraSP sp = new DijkstraSP(from ? forward : backward, landmarks[i]);
+            double[] distances = from ? fromLandmark : toLandmark;
+
+            for (int v = 0; v < V; v++) {
+                distances[v * k + i] = sp.distTo(v);
+            }
+        });
+    }
+
+    // the distances are stored in two arrays of V * k entries
+    private static void validateSize(int V, int k) {
+        if ((long) V * k > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many landmarks for " + V + " vertices");
+    }
+
+    private static int[] farthestLandmarks(CompactDigraph G, int k) {
+        if (k <= 0 || k > G.V()) throw new IllegalArgumentException("Invalid number of landmarks " + k);
+
+        validateSize(G.V(), k);
+
+        int[] landmarks = new int[k];
+
+        landmarks[0] = new Random(k).nextInt(G.V());
+
+        for (int i = 1; i < k; i++) {
+            MultiSourceDijkstraSP sp = new MultiSourceDijkstraSP(G, Arrays.copyOf(landmarks, i));
+            int farthest = 0;
+
+            for (int v = 1; v < G.V(); v++) {
+                if (sp.distTo(v) > sp.distTo(farthest)) farthest = v;
+            }
+
+            landmarks[i] = farthest;
+        }
+
+        return landmarks;
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    public int landmarks() { return k; }
+
+    public int landmark(int i) {
+        if (i < 0 || i >= k) throw new IllegalArgumentException("Invalid landmark index " + i);
+
+        return landmarks[i];
+    }
+
+    /**
+     * {@code upperBound()} - Length of the shortest {@code s -> t} route through a landmark.
+     * @param s source vertex
+     * @param t destination vertex
+     * @return an upper bound on the distance, {@code Double.POSITIVE_INFINITY} if no landmark connects them
+     */
+    public double upperBound(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+
+        if (s == t) return 0.0;
+
+        double best = Double.POSITIVE_INFINITY;
+
+        for (int i = 0, a = s * k, b = t * k; i < k; i++) {
+            best = Math.min(best, toLandmark[a + i] + fromLandmark[b + i]);
+        }
+
+        return best;
+    }
+
+    /**
+     * {@code lowerBound()} - Best triangle-inequality lower bound over all landmarks.
+     * @param s source vertex
+     * @param t destination vertex
+     * @return a lower bound on the distance, {@code Double.POSITIVE_INFINITY} if a landmark proves there is no path
+     */
+    public double lowerBound(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+
+        double best = 0.0;
+
+        for (int i = 0, a = s * k, b = t * k; i < k; i++) {
+            double fromS = fromLandmark[a + i];
+            double fromT = fromLandmark[b + i];
+            double toS = toLandmark[a + i];
+            double toT = toLandmark[b + i];
+
+            // L reaches s but not t, or t reaches L but s does not: then s cannot reach t
+            if (fromS < Double.POSITIVE_INFINITY && fromT == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+            if (toT < Double.POSITIVE_INFINITY && toS == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+
+            if (fromS < Double.POSITIVE_INFINITY) best = Math.max(best, fromT - fromS);
+            if (toT < Double.POSITIVE_INFINITY) best = Math.max(best, toS - toT);
+        }
+
+        return best;
+    }
+
+    /**
+     * {@code distance()} - Approximate distance: the upper bound, which is the length of an actual path.
+     * @param s source vertex
+     * @param t destination vertex
+     * @return the estimate, at least the true distance
+     */
+    public double distance(int s, int t) { return upperBound(s, t); }
+
+    /**
+     * {@code errorBound()} - Largest possible error of {@code distance(s, t)}, the gap between the bounds.
+     * @param s source vertex
+     * @param t destination vertex
+     * @return the absolute error bound, {@code 0.0} when the estimate is provably exact
+     */
+    public double errorBound(int s, int t) {
+        double upper = upperBound(s, t);
+        double lower = lowerBound(s, t);
+
+        return upper == lower ? 0.0 : upper - lower;
+    }
+
+    /**
+     * {@code bytes()} - Size of the distance arrays.
+     * @return size in bytes
+     */
+    public long bytes() { return 16L * V * k + 4L * k; }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        int sources = 20;
+        Random random = new Random(13);
+        int[] s = random.ints(sources, 0, ewd.V()).toArray();
+        DijkstraSP[] exact = Arrays.stream(s).mapToObj(v -> new DijkstraSP(ewd, v)).toArray(DijkstraSP[]::new);
+
+        for (int k : new int[] { 1, 2, 4, 8, 16, 32 }) {
+            if (k > ewd.V()) break;
+
+            long start = System.nanoTime();
+            LandmarkDistanceOracle oracle = new LandmarkDistanceOracle(ewd, k);
+            long built = System.nanoTime() - start;
+
+            double relativeError = 0.0;
+            double relativeBound = 0.0;
+            int pairs = 0;
+            int exactCount = 0;
+
+            for (int i = 0; i < sources; i++) {
+                for (int t = 0; t < ewd.V(); t++) {
+                    double d = exact[i].distTo(t);
+
+                    if (d == 0.0 || d == Double.POSITIVE_INFINITY) continue;
+
+                    double estimate = oracle.distance(s[i], t);
+
+                    pairs++;
+                    relativeError += (estimate - d) / d;
+                    relativeBound += oracle.errorBound(s[i], t) / d;
+
+                    if (estimate - d < 1e-12) exactCount++;
+                }
+            }
+
+            System.out.printf("k = %2d: built in %4d ms, %8d bytes; mean error %6.1f%%, mean bound %7.1f%%, exact %5.1f%%%n",
+                    k, built / 1_000_000, oracle.bytes(), 100 * relativeError / pairs, 100 * relativeBound / pairs,
+                    100.0 * exactCount / pairs);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.kotopka;
+
+import java.util.Arrays;
+
+/**
+ * {@code LongIdMap} - {@link VertexIdMap} for 64-bit numeric ids. Uses open addressing with linear probing over
+ * primitive arrays, so no {@code Long}/{@code Integer} boxes or entry objects are created. Roughly 24 to 40 bytes
+ * per vertex depending on the table load, against 80+ for a {@code HashMap<Long, Integer>}.
+ */
+public class LongIdMap implements VertexIdMap {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final double MAX_LOAD = 0.75;
+
+    private long[] keys;        // slot -> external id
+    private int[] ids;          // slot -> dense id + 1, 0 marks an empty slot
+    private long[] external;    // dense id -> external id
+    private int size;
+
+    /**
+     * {@code LongIdMap} Constructor. Creates an empty map.
+     */
+    public LongIdMap() {
+        this(16);
+    }
+
+    /**
+     * {@code LongIdMap} Constructor. Creates an empty map sized for {@code expectedSize} ids, avoiding rehashing
+     * while loading.
+     * @param expectedSize the expected number of distinct ids
+     */
+    public LongIdMap(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+
+        int capacity = tableSizeFor(expectedSize);
+
+        this.keys = new long[capacity];
+        this.ids = new int[capacity];
+        this.external = new long[Math.max(expectedSize, 16)];
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / MAX_LOAD) + 1;
+        int capacity = 16;
+
+        while (capacity < needed) {
+            if (capacity == MAX_CAPACITY) throw new IllegalStateException("Too many ids");
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        // murmur3 64-bit finalizer, spreads sequential and strided ids over the whole table
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+
+        return (int) key;
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+
+        while (ids[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+
+        return i;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldIds = ids;
+
+        if (oldKeys.length == MAX_CAPACITY) throw new IllegalStateException("Too many ids");
+
+        keys = new long[oldKeys.length << 1];
+        ids = new int[oldKeys.length << 1];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldIds[i] != 0) {
+                int j = slot(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                ids[j] = oldIds[i];
+            }
+        }
+    }
+
+    /**
+     * {@code intern()} - Returns the dense id of {@code key}, assigning the next free id if it is new.
+     * @param key external id
+     * @return dense vertex id
+     */
+    public int intern(long key) {
+        int i = slot(key);
+
+        if (ids[i] != 0) return ids[i] - 1;
+
+        if (size + 1 > keys.length * MAX_LOAD) {
+            grow();
+            i = slot(key);
+        }
+
+        if (size == external.length) {
+            external = Arrays.copyOf(external, (int) Math.min((long) size << 1, Integer.MAX_VALUE - 8));
+        }
+
+        keys[i] = key;
+        ids[i] = size + 1;
+        external[size] = key;
+
+        return size++;
+    }
+
+    @Override
+    public int intern(String externalId) {
+        if (externalId == null) throw new IllegalArgumentException("Id cannot be null");
+
+        return intern(Long.parseLong(externalId));
+    }
+
+    /**
+     * {@code id()} - Looks up the dense id of {@code key} without assigning one.
+     * @param key external id
+     * @return dense vertex id, or {@code -1} if {@code key} has not been interned
+     */
+    public int id(long key) {
+        return ids[slot(key)] - 1;
+    }
+
+    /**
+     * {@code externalLong()} - The external id of a dense vertex id.
+     * @param v dense vertex id
+     * @return the external id
+     */
+    public long externalLong(int v) {
+        if (v < 0 || v >= size) throw new IllegalArgumentException("Invalid vertex " + v);
+
+        return external[v];
+    }
+
+    @Override
+    public String externalId(int v) {
+        return Long.toString(externalLong(v));
+    }
+
+    @Override
+    public int size() { return size; }
+
+}
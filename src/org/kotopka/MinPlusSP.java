@@ -0,0 +1,270 @@
+package org.kotopka;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * {@code MinPlusSP} - Shortest paths as repeated sparse matrix-vector products in the (min, +) semiring: with the
+ * digraph as a CSR matrix {@code A}, every round computes {@code x = min(x, A^T (+) x)}, restricted to the rows and
+ * columns of vertices whose distance changed in the previous round (the frontier). Handles negative weights like
+ * Bellman-Ford; a frontier that is still non-empty after {@code V} rounds means a negative cycle. <br>
+ * Each round picks one of two kernels: <br>
+ * - push (sparse frontier): the out-edges of the frontier vertices are relaxed in place; <br>
+ * - pull (dense frontier, more than 1/{@value #PULL_RATIO} of the edges leaving it): every vertex takes the minimum
+ * over its in-edges from the frontier, read from one distance array and written to the other, in parallel row blocks
+ * with no shared writes. <br>
+ * Several sources may be given at once, with optional offsets, as for {@link MultiSourceDijkstraSP}. For many
+ * independent sources see {@link MinPlusBatchSP}.
+ */
+public class MinPlusSP implements ShortestPathTree {
+
+    private static final int PULL_RATIO = 16;
+    private static final int ROW_BLOCK = 1 << 12;
+
+    private final int V;
+    private final double[] distTo;
+    private final int[] parent;
+    private final double[] parentWeight;
+    private final boolean negativeCycle;
+    private int rounds;
+    private int pullRounds;
+
+    public MinPlusSP(Digraph G, int source) {
+        this(G, new int[] { source }, null);
+    }
+
+    /**
+     * {@code MinPlusSP} Constructor.
+     * @param G the digraph
+     * @param sources the source vertices
+     * @param offsets initial distance of each source, {@code null} for all zero
+     */
+    public MinPlusSP(Digraph G, int[] sources, double[] offsets) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (sources == null || sources.length == 0) throw new IllegalArgumentException("Need at least one source");
+        if (offsets != null && offsets.length != sources.length) {
+            throw new IllegalArgumentException("Need one offset per source");
+        }
+
+        CompactDigraph forward = CompactDigraph.of(G);
+        CompactDigraph backward = null;     // built on the first pull round
+
+        this.V = forward.V();
+        this.parent = new int[V];
+        this.parentWeight = new double[V];
+
+        double[] current = new double[V];
+        double[] next = new double[V];
+        boolean[] active = new boolean[V];
+        boolean[] nextActive = new boolean[V];
+        int[] frontier = new int[V];
+        int[] nextFrontier = new int[V];
+        int size = 0;
+
+        Arrays.fill(current, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+
+        for (int i = 0; i < sources.length; i++) {
+            int s = sources[i];
+            double offset = offsets == null ? 0.0 : offsets[i];
+
+            validateVertex(s);
+
+            if (offset < current[s]) current[s] = offset;
+
+            if (!active[s]) {
+                active[s] = true;
+                frontier[size++] = s;
+            }
+        }
+
+        while (size > 0 && rounds < V) {
+            rounds++;
+
+            long frontierEdges = 0;
+
+            for (int i = 0; i < size; i++) frontierEdges += forward.end(frontier[i]) - forward.start(frontier[i]);
+
+            int nextSize = 0;
+
+            if (frontierEdges * PULL_RATIO > forward.E()) {
+                if (backward == null) backward = forward.reverse();
+
+                pull(backward, current, next, active, nextActive);
+
+                double[] swap = current;
+                current = next;
+                next = swap;
+
+                for (int w = 0; w < V; w++) {
+                    if (nextActive[w]) nextFrontier[nextSize++] = w;
+                }
+
+                pullRounds++;
+            } else {
+                for (int i = 0; i < size; i++) {
+                    int u = frontier[i];
+                    double d = current[u];
+
+                    for (int e = forward.start(u); e < forward.end(u); e++) {
+                        int w = forward.to(e);
+                        double pathWeight = d + forward.weight(e);
+
+                        if (pathWeight < current[w]) {
+                            current[w] = pathWeight;
+                            parent[w] = u;
+                            parentWeight[w] = forward.weight(e);
+
+                            if (!nextActive[w]) {
+                                nextActive[w] = true;
+                                nextFrontier[nextSize++] = w;
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < size; i++) active[frontier[i]] = false;
+
+            boolean[] swapActive = active;
+            active = nextActive;
+            nextActive = swapActive;
+
+            int[] swapFrontier = frontier;
+            frontier = nextFrontier;
+            nextFrontier = swapFrontier;
+            size = nextSize;
+        }
+
+        this.distTo = current;
+        this.negativeCycle = size > 0;
+    }
+
+    // next[w] = min(current[w], min over active in-neighbours u of current[u] + weight), in parallel row blocks
+    private void pull(CompactDigraph backward, double[] current, double[] next, boolean[] active, boolean[] changed) {
+        int blocks = (V + ROW_BLOCK - 1) / ROW_BLOCK;
+
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int end = Math.min(V, (block + 1) * ROW_BLOCK);
+
+            for (int w = block * ROW_BLOCK; w < end; w++) {
+                double best = current[w];
+                int bestParent = -1;
+                double bestWeight = 0.0;
+
+                for (int e = backward.start(w); e < backward.end(w); e++) {
+                    int u = backward.to(e);
+
+                    if (!active[u]) continue;
+
+                    double pathWeight = current[u] + backward.weight(e);
+
+                    if (pathWeight < best) {
+                        best = pathWeight;
+                        bestParent = u;
+                        bestWeight = backward.weight(e);
+                    }
+                }
+
+                next[w] = best;
+                changed[w] = bestParent != -1;
+
+                if (bestParent != -1) {
+                    parent[w] = bestParent;
+                    parentWeight[w] = bestWeight;
+                }
+            }
+        });
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    @Override
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    @Override
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for sources and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return parent[v] == -1 ? null : new DirectedEdge(parent[v], v, parentWeight[v]);
+    }
+
+    @Override
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+
+        if (hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
+        if (! hasPathTo(v)) return null;
+
+        Stack<DirectedEdge> path = new Stack<>();
+
+        for (DirectedEdge e = edgeTo(v); e != null; e = edgeTo(e.from())) {
+            path.push(e);
+        }
+
+        return path;
+    }
+
+    @Override
+    public boolean hasNegativeCycle() { return negativeCycle; }
+
+    /**
+     * {@code rounds()} - Number of matrix-vector products computed.
+     * @return rounds, at most {@code V}
+     */
+    public int rounds() { return rounds; }
+
+    /**
+     * {@code pullRounds()} - Number of rounds that used the dense pull kernel.
+     * @return pull rounds
+     */
+    public int pullRounds() { return pullRounds; }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+
+        long start = System.nanoTime();
+        MinPlusSP sp = new MinPlusSP(ewd, 0);
+        long minPlusTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        BellmanFordSP bf = new BellmanFordSP(ewd, 0);
+        long bellmanFordTime = System.nanoTime() - start;
+
+        if (sp.hasNegativeCycle()) {
+            System.out.println("Negative cycle exists (BellmanFordSP agrees: " + bf.hasNegativeCycle() + ")");
+            return;
+        }
+
+        double maxDifference = 0.0;
+
+        for (int v = 0; v < ewd.V(); v++) {
+            if (sp.hasPathTo(v)) maxDifference = Math.max(maxDifference, Math.abs(sp.distTo(v) - bf.distTo(v)));
+        }
+
+        System.out.printf("%d rounds (%d pull): %d us, BellmanFordSP %d us, max difference %.2g%n", sp.rounds(),
+                sp.pullRounds(), minPlusTime / 1000, bellmanFordTime / 1000, maxDifference);
+    }
+}
@@ -0,0 +1,180 @@
+package org.kotopka;
+
+import java.util.Arrays;
+
+/**
+ * {@code MultiSourceDijkstraSP} - Shortest paths from the nearest of several sources, using Dijkstra's algorithm with
+ * all sources in the heap at once. Equivalent to a single {@code DijkstraSP} from a super-source with an edge to
+ * every source, without copying the graph. <br>
+ * Each vertex is owned by the source its shortest path starts from, so the owners partition the reachable vertices
+ * into the Voronoi cells of the sources, at the cost of one single-source search. A source may start with an offset,
+ * e.g. a depot's handling time, added to all paths starting from it.
+ */
+public class MultiSourceDijkstraSP implements ShortestPathTree {
+
+    private final int V;
+    private final double[] distTo;
+    private final DirectedEdge[] edgeTo;
+    private final int[] owner;
+    private final IndexDaryMinPQ<Double> edgePQ;    // v is index, weight is key
+
+    public MultiSourceDijkstraSP(Digraph G, int[] sources) {
+        this(G, sources, null);
+    }
+
+    /**
+     * {@code MultiSourceDijkstraSP} Constructor.
+     * @param G the digraph, edge weights must be non-negative
+     * @param sources the source vertices; if a vertex appears more than once its smallest offset is used
+     * @param offsets initial distance of each source, {@code null} for all zero
+     */
+    public MultiSourceDijkstraSP(Digraph G, int[] sources, double[] offsets) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (sources == null || sources.length == 0) throw new IllegalArgumentException("Need at least one source");
+        if (offsets != null && offsets.length != sources.length) {
+            throw new IllegalArgumentException("Need one offset per source");
+        }
+
+        this.V = G.V();
+        this.distTo = new double[V];
+        this.edgeTo = new DirectedEdge[V];
+        this.owner = new int[V];
+        this.edgePQ = new IndexDaryMinPQ<>(IndexDaryMinPQ.FOUR_WAY_HEAP, V);   // using a 4-ary heap
+
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+        Arrays.fill(owner, -1);
+
+        for (int i = 0; i < sources.length; i++) {
+            int s = sources[i];
+            double offset = offsets == null ? 0.0 : offsets[i];
+
+            validateVertex(s);
+
+            if (Double.isNaN(offset) || Double.isInfinite(offset)) throw new IllegalArgumentException("Invalid offset " + offset);
+
+            if (offset < distTo[s]) {
+                distTo[s] = offset;
+                owner[s] = s;
+
+                if (edgePQ.contains(s)) {
+                    edgePQ.changeKey(s, offset);
+                } else {
+                    edgePQ.insert(s, offset);
+                }
+            }
+        }
+
+        while (!edgePQ.isEmpty()) {
+            relax(G, edgePQ.delMin());
+        }
+    }
+
+    private void relax(Digraph G, int v) {
+
+        // for all edges incident to vertex v
+        for (DirectedEdge e : G.adj(v)) {
+            int w = e.to();
+            double pathWeight = distTo[v] + e.weight();
+
+            if (distTo[w] > pathWeight) {
+                distTo[w] = pathWeight;
+                edgeTo[w] = e;
+                owner[w] = owner[v];
+
+                if (edgePQ.contains(w)) {
+                    edgePQ.changeKey(w, pathWeight);
+                } else {
+                    edgePQ.insert(w, pathWeight);
+                }
+            }
+        }
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    /**
+     * {@code distTo()} - Distance from the nearest source to {@code v}, including that source's offset.
+     * @param v the vertex
+     * @return the distance, {@code Double.POSITIVE_INFINITY} if no source reaches {@code v}
+     */
+    @Override
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    /**
+     * {@code owner()} - The source whose shortest path reaches {@code v}, i.e. the Voronoi cell of {@code v}.
+     * @param v the vertex
+     * @return the owning source vertex, {@code -1} if no source reaches {@code v}
+     */
+    public int owner(int v) {
+        validateVertex(v);
+
+        return owner[v];
+    }
+
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the owning source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for sources and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return edgeTo[v];
+    }
+
+    @Override
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+
+        if (! hasPathTo(v)) return null;
+
+        Stack<DirectedEdge> path = new Stack<>();
+
+        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+            path.push(e);
+        }
+
+        return path;
+    }
+
+    @Override
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Error: missing commandline argument.");
+            System.out.println("Usage: MultiSourceDijkstraSP <graph> <source> [source ...]");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        int[] sources = Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray();
+
+        MultiSourceDijkstraSP sp = new MultiSourceDijkstraSP(ewd, sources);
+        int[] cellSize = new int[ewd.V()];
+
+        for (int v = 0; v < ewd.V(); v++) {
+            if (sp.hasPathTo(v)) {
+                cellSize[sp.owner(v)]++;
+                System.out.printf("%d: nearest source %d at %.2f%n", v, sp.owner(v), sp.distTo(v));
+            } else {
+                System.out.println(v + ": unreachable");
+            }
+        }
+
+        for (int s : sources) {
+            System.out.println("Source " + s + " owns " + cellSize[s] + " vertices");
+        }
+    }
+
+}
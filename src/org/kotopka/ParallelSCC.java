@@ -0,0 +1,278 @@
+package org.kotopka;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code ParallelSCC} - Strongly connected components by forward-backward decomposition with trimming (FW-BW-Trim),
+ * for digraphs too large for a single sequential pass: <br>
+ * - trim: vertices without in- or out-edges inside their subproblem are components of their own, repeatedly; <br>
+ * - the vertices both reachable from a pivot and reaching it form the pivot's component; <br>
+ * - the rest splits into forward-only, backward-only and unreached vertices, three subproblems no component crosses,
+ * which are solved in parallel. <br>
+ * Subproblems are told apart by a color per vertex, so searches never leave their own. Subproblems smaller than
+ * {@value #SEQUENTIAL_CUTOFF} vertices are finished in the task that produced them. The ids are renumbered at the end
+ * into the topological numbering of {@link StrongComponents}.
+ */
+public class ParallelSCC implements StrongComponents {
+
+    private static final int SEQUENTIAL_CUTOFF = 1 << 12;
+    private static final int DONE = -1;     // color of vertices whose component is known
+
+    private final CompactDigraph forward;
+    private final CompactDigraph backward;
+    private final int[] color;
+    private final int[] id;
+    private final int[] slot;       // position of a vertex in the array of its subproblem, during trimming
+    private final AtomicInteger colors = new AtomicInteger();
+    private final AtomicInteger components = new AtomicInteger();
+    private final int count;
+
+    public ParallelSCC(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        this.forward = CompactDigraph.of(G);
+        this.backward = forward.reverse();
+
+        int V = forward.V();
+        int[] all = new int[V];
+
+        for (int v = 0; v < V; v++) all[v] = v;
+
+        this.color = new int[V];
+        this.id = new int[V];
+        this.slot = new int[V];
+
+        Arrays.fill(color, colors.getAndIncrement());
+
+        ForkJoinPool.commonPool().invoke(new Split(null, all));
+
+        this.count = components.get();
+
+        renumber();
+    }
+
+    // solves one subproblem, forking the large ones it splits into
+    private class Split extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private int[] vertices;     // dropped once taken, pending parents must not hold on to their arrays
+
+        Split(CountedCompleter<?> parent, int[] vertices) {
+            super(parent);
+            this.vertices = vertices;
+        }
+
+        @Override
+        public void compute() {
+            ArrayDeque<int[]> local = new ArrayDeque<>();
+
+            local.push(vertices);
+            vertices = null;
+
+            while (!local.isEmpty()) {
+                int[] part = local.pop();
+
+                // all vertices of a subproblem have the same color
+                for (int[] next : split(part, color[part[0]])) {
+                    if (next.length >= SEQUENTIAL_CUTOFF) {
+                        addToPendingCount(1);
+                        new Split(this, next).fork();
+                    } else if (next.length > 0) {
+                        local.push(next);
+                    }
+                }
+            }
+
+            tryComplete();
+        }
+    }
+
+    // one FW-BW-Trim step on the vertices of color c, returns the three remaining subproblems
+    private int[][] split(int[] vertices, int c) {
+        int[] remaining = trim(vertices, c);
+
+        if (remaining.length == 0) return new int[0][];
+
+        // a random pivot splits chains of components evenly in expectation, instead of peeling one at a time
+        int pivot = remaining[ThreadLocalRandom.current().nextInt(remaining.length)];
+        int fc = colors.getAndIncrement();
+        int bc = colors.getAndIncrement();
+        int[] queue = new int[remaining.length];
+        int head = 0;
+        int tail = 0;
+
+        color[pivot] = fc;
+        queue[tail++] = pivot;
+
+        while (head < tail) {
+            int v = queue[head++];
+
+            for (int e = forward.start(v); e < forward.end(v); e++) {
+                int w = forward.to(e);
+
+                if (color[w] == c) {
+                    color[w] = fc;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        int component = components.getAndIncrement();
+
+        head = 0;
+        tail = 0;
+        color[pivot] = DONE;
+        id[pivot] = component;
+        queue[tail++] = pivot;
+
+        while (head < tail) {
+            int v = queue[head++];
+
+            for (int e = backward.start(v); e < backward.end(v); e++) {
+                int w = backward.to(e);
+
+                if (color[w] == fc) {
+                    color[w] = DONE;
+                    id[w] = component;
+                    queue[tail++] = w;
+                } else if (color[w] == c) {
+                    color[w] = bc;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        return new int[][] { select(remaining, fc), select(remaining, bc), select(remaining, c) };
+    }
+
+    // removes vertices without in- or out-edges of color c, repeatedly, returns the rest
+    private int[] trim(int[] vertices, int c) {
+        int n = vertices.length;
+        int[] in = new int[n];      // degrees inside the subproblem, by position in vertices
+        int[] out = new int[n];
+        int[] queue = new int[n];
+        int tail = 0;
+
+        for (int i = 0; i < n; i++) {
+            int v = vertices[i];
+
+            slot[v] = i;
+
+            for (int e = forward.start(v); e < forward.end(v); e++) {
+                if (color[forward.to(e)] == c) out[i]++;
+            }
+
+            for (int e = backward.start(v); e < backward.end(v); e++) {
+                if (color[backward.to(e)] == c) in[i]++;
+            }
+
+            if (in[i] == 0 || out[i] == 0) queue[tail++] = v;
+        }
+
+        // a vertex is queued when its first degree drops to zero, never twice
+        for (int head = 0; head < tail; head++) {
+            int v = queue[head];
+
+            color[v] = DONE;
+            id[v] = components.getAndIncrement();
+
+            for (int e = forward.start(v); e < forward.end(v); e++) {
+                int w = forward.to(e);
+
+                if (color[w] == c && --in[slot[w]] == 0 && out[slot[w]] > 0) queue[tail++] = w;
+            }
+
+            for (int e = backward.start(v); e < backward.end(v); e++) {
+                int w = backward.to(e);
+
+                if (color[w] == c && --out[slot[w]] == 0 && in[slot[w]] > 0) queue[tail++] = w;
+            }
+        }
+
+        return select(vertices, c);
+    }
+
+    // vertices of the given color
+    private int[] select(int[] vertices, int c) {
+        int n = 0;
+
+        for (int v : vertices) {
+            if (color[v] == c) n++;
+        }
+
+        int[] selected = new int[n];
+
+        n = 0;
+
+        for (int v : vertices) {
+            if (color[v] == c) selected[n++] = v;
+        }
+
+        return selected;
+    }
+
+    // renumbers the components in topological order of the condensation, by Kahn's algorithm on the components
+    private void renumber() {
+        int V = forward.V();
+        int[] start = new int[count + 1];
+        int[] member = new int[V];
+        int[] indegree = new int[count];
+
+        for (int v = 0; v < V; v++) start[id[v] + 1]++;
+
+        for (int k = 0; k < count; k++) start[k + 1] += start[k];
+
+        int[] next = Arrays.copyOf(start, count);
+
+        for (int v = 0; v < V; v++) {
+            member[next[id[v]]++] = v;
+
+            for (int e = forward.start(v); e < forward.end(v); e++) {
+                if (id[forward.to(e)] != id[v]) indegree[id[forward.to(e)]]++;
+            }
+        }
+
+        int[] order = new int[count];
+        int[] rank = new int[count];
+        int head = 0;
+        int tail = 0;
+
+        for (int k = 0; k < count; k++) {
+            if (indegree[k] == 0) order[tail++] = k;
+        }
+
+        while (head < tail) {
+            int k = order[head];
+
+            rank[k] = head++;
+
+            for (int i = start[k]; i < start[k + 1]; i++) {
+                int v = member[i];
+
+                for (int e = forward.start(v); e < forward.end(v); e++) {
+                    int j = id[forward.to(e)];
+
+                    if (j != k && --indegree[j] == 0) order[tail++] = j;
+                }
+            }
+        }
+
+        for (int v = 0; v < V; v++) id[v] = rank[id[v]];
+    }
+
+    @Override
+    public int count() { return count; }
+
+    @Override
+    public int id(int v) {
+        if (v < 0 || v >= id.length) throw new IllegalArgumentException("Invalid vertex " + v);
+
+        return id[v];
+    }
+}
@@ -0,0 +1,143 @@
+package org.kotopka;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * {@code QueryLoadGenerator} - Load-generator client for {@link QueryServer}. Opens a number of connections, each
+ * sending random (source, target) queries one at a time and timing every round trip, then reports throughput and
+ * latency percentiles over all queries.
+ */
+public class QueryLoadGenerator {
+
+    private final int port;
+    private final int connections;
+    private final int queries;
+    private final long[] latencies;    // nanoseconds, one slice of queries per connection
+    private long elapsed;
+    private long pathVertices;
+
+    /**
+     * {@code QueryLoadGenerator} Constructor.
+     * @param port port of the server on the loopback interface
+     * @param connections number of concurrent connections
+     * @param queries number of queries sent over each connection
+     */
+    public QueryLoadGenerator(int port, int connections, int queries) {
+        if (connections <= 0 || queries <= 0) throw new IllegalArgumentException("Counts must be positive");
+
+        this.port = port;
+        this.connections = connections;
+        this.queries = queries;
+        this.latencies = new long[connections * queries];
+    }
+
+    /**
+     * {@code run()} - Runs the load and waits for all connections to finish.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void run() throws InterruptedException {
+        Thread[] threads = new Thread[connections];
+        long[] vertices = new long[connections];
+        long start = System.nanoTime();
+
+        for (int c = 0; c < connections; c++) {
+            int connection = c;
+
+            threads[c] = new Thread(() -> vertices[connection] = drive(connection));
+            threads[c].start();
+        }
+
+        for (Thread thread : threads) thread.join();
+
+        this.elapsed = System.nanoTime() - start;
+        this.pathVertices = Arrays.stream(vertices).sum();
+
+        Arrays.sort(latencies);
+    }
+
+    // sends this connection's queries, returns the total number of path vertices received
+    private long drive(int connection) {
+        Random random = new Random(connection);
+        long received = 0;
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 13));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 13));
+            int V = in.readInt();
+
+            for (int q = 0; q < queries; q++) {
+                long sent = System.nanoTime();
+
+                out.writeInt(random.nextInt(V));
+                out.writeInt(random.nextInt(V));
+                out.flush();
+
+                in.readByte();
+                in.readDouble();
+
+                int length = in.readInt();
+
+                for (int i = 0; i < length; i++) in.readInt();
+
+                latencies[connection * queries + q] = System.nanoTime() - sent;
+                received += length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return received;
+    }
+
+    /**
+     * {@code percentile()} - Latency below which the given fraction of queries completed.
+     * @param p fraction between {@code 0.0} and {@code 1.0}
+     * @return latency in nanoseconds
+     */
+    public long percentile(double p) {
+        if (p < 0.0 || p > 1.0) throw new IllegalArgumentException("Percentile must be between 0 and 1");
+
+        int rank = (int) Math.ceil(p * latencies.length);
+
+        return latencies[Math.max(0, Math.min(latencies.length, rank) - 1)];
+    }
+
+    public double throughput() { return latencies.length / (elapsed / 1e9); }
+
+    @Override
+    public String toString() {
+        return String.format("%d queries over %d connections in %d ms: %.0f queries/s, %.1f path vertices/query%n" +
+                        "latency us: p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f",
+                latencies.length, connections, elapsed / 1_000_000, throughput(), (double) pathVertices / latencies.length,
+                percentile(0.5) / 1e3, percentile(0.9) / 1e3, percentile(0.99) / 1e3, percentile(0.999) / 1e3,
+                latencies[latencies.length - 1] / 1e3);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        int port = Integer.parseInt(args[0]);
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        QueryLoadGenerator load = new QueryLoadGenerator(port, connections, queries);
+
+        load.run();
+
+        System.out.println(load);
+    }
+}
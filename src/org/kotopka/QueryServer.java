@@ -0,0 +1,187 @@
+package org.kotopka;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@code QueryServer} - Standalone shortest-path server, so that many processes can share one loaded copy of a graph
+ * instead of each loading its own. Listens on the loopback interface only. <br>
+ * Protocol, all values big-endian as written by {@code DataOutputStream}: <br>
+ * - on connect the server sends {@code int V}; <br>
+ * - each request is {@code int source, int target}; <br>
+ * - each response is {@code byte status, double distance, int length} followed by {@code length} vertex ints, the
+ * path from source to target. Status is {@link #FOUND}, {@link #NO_PATH} (distance is infinity) or {@link #INVALID}
+ * (distance is NaN); only {@code FOUND} carries a path. <br>
+ * Requests may be pipelined: responses are buffered and flushed once no further request is waiting. <br>
+ * Every connection gets its own thread: a virtual thread where the runtime has them (Java 21 and later), a pooled
+ * platform thread otherwise. Queries run on {@link DijkstraWorkspace}s taken from a shared pool, so memory grows with
+ * the number of queries in flight rather than with the number of connections.
+ */
+public class QueryServer implements AutoCloseable {
+
+    public static final byte FOUND = 0;
+    public static final byte NO_PATH = 1;
+    public static final byte INVALID = 2;
+
+    private final CompactDigraph G;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final ConcurrentLinkedQueue<Workspace> pool;
+
+    // a workspace along with the buffer its paths are written to
+    private static class Workspace {
+        final DijkstraWorkspace dijkstra;
+        final int[] path;
+
+        Workspace(CompactDigraph G) {
+            this.dijkstra = new DijkstraWorkspace(G);
+            this.path = new int[G.V()];
+        }
+    }
+
+    /**
+     * {@code QueryServer} Constructor. Binds the socket; call {@code serve()} to start accepting connections.
+     * @param G the digraph to answer queries on, edge weights must be non-negative
+     * @param port local port to listen on, {@code 0} for any free port
+     * @throws IOException if the socket cannot be bound
+     */
+    public QueryServer(CompactDigraph G, int port) throws IOException {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        this.G = G;
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        this.executor = newConnectionExecutor();
+        this.pool = new ConcurrentLinkedQueue<>();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is looked up reflectively so the server still runs on Java 17
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "query-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int port() { return serverSocket.getLocalPort(); }
+
+    /**
+     * {@code serve()} - Accepts connections until the server is closed.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                // closed while waiting in accept()
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 13));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 13));
+
+            out.writeInt(G.V());
+            out.flush();
+
+            while (true) {
+                int source;
+                int target;
+
+                try {
+                    source = in.readInt();
+                    target = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+
+                answer(source, target, out);
+
+                if (in.available() == 0) out.flush();
+            }
+        } catch (IOException e) {
+            // client went away mid-request, nothing to answer
+        }
+    }
+
+    private void answer(int source, int target, DataOutputStream out) throws IOException {
+        if (source < 0 || source >= G.V() || target < 0 || target >= G.V()) {
+            out.writeByte(INVALID);
+            out.writeDouble(Double.NaN);
+            out.writeInt(0);
+            return;
+        }
+
+        Workspace workspace = pool.poll();
+
+        if (workspace == null) workspace = new Workspace(G);
+
+        try {
+            workspace.dijkstra.solve(source, target);
+
+            int length = workspace.dijkstra.pathTo(target, workspace.path);
+
+            out.writeByte(length > 0 ? FOUND : NO_PATH);
+            out.writeDouble(workspace.dijkstra.distTo(target));
+            out.writeInt(length);
+
+            for (int i = 0; i < length; i++) {
+                out.writeInt(workspace.path[i]);
+            }
+        } finally {
+            pool.offer(workspace);
+        }
+    }
+
+    /**
+     * {@code workspaces()} - Number of idle workspaces in the pool, i.e. the peak number of concurrent queries so far.
+     * @return pooled workspace count
+     */
+    public int workspaces() { return pool.size(); }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7474;
+        long start = System.nanoTime();
+        CompactDigraph G = GraphLoader.loadCompact(args[0]);
+
+        try (QueryServer server = new QueryServer(G, port)) {
+            System.out.printf("Loaded %d vertices, %d edges in %d ms, listening on port %d%n",
+                    G.V(), G.E(), (System.nanoTime() - start) / 1_000_000, server.port());
+
+            server.serve();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.kotopka;
+
+import java.util.Random;
+
+/**
+ * {@code ReorderingBenchmark} - Times {@code DijkstraSP} on a grid-like road network whose vertex ids have been
+ * shuffled, before and after each {@link VertexReordering.Ordering}. <br>
+ * The JVM has no portable access to hardware counters; to see the cache-miss difference run it under
+ * {@code perf stat -e cache-references,cache-misses java org.kotopka.ReorderingBenchmark <ordering>} once with
+ * {@code NONE} and once with an ordering. Arguments: {@code [ALL|NONE|<ordering>] [grid side]}.
+ */
+public class ReorderingBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    private static final int SOURCES = 10;
+
+    private static EdgeWeightedDigraph shuffledGrid(int side, Random random) {
+        int V = side * side;
+        int[] id = new int[V];
+
+        for (int i = 0; i < V; i++) {
+            id[i] = i;
+        }
+
+        for (int i = V - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = id[i];
+            id[i] = id[j];
+            id[j] = temp;
+        }
+
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(V);
+
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+
+                if (c + 1 < side) {
+                    G.addEdge(new DirectedEdge(id[v], id[v + 1], 1.0 + random.nextDouble()));
+                    G.addEdge(new DirectedEdge(id[v + 1], id[v], 1.0 + random.nextDouble()));
+                }
+                if (r + 1 < side) {
+                    G.addEdge(new DirectedEdge(id[v], id[v + side], 1.0 + random.nextDouble()));
+                    G.addEdge(new DirectedEdge(id[v + side], id[v], 1.0 + random.nextDouble()));
+                }
+            }
+        }
+
+        return G;
+    }
+
+    private static double time(Digraph G, int[] sources) {
+        double checksum = 0.0;
+        long best = Long.MAX_VALUE;
+
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+
+            for (int s : sources) {
+                checksum += new DijkstraSP(G, s).distTo(sources[0]);
+            }
+
+            long elapsed = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) best = Math.min(best, elapsed);
+        }
+
+        if (Double.isNaN(checksum)) System.out.println("unreachable");
+
+        return best / 1e6;
+    }
+
+    public static void main(String[] args) {
+        int side = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        String only = args.length > 0 && !args[0].equals("ALL") ? args[0] : null;
+
+        Random random = new Random(42);
+        EdgeWeightedDigraph G = shuffledGrid(side, random);
+
+        int[] sources = new int[SOURCES];
+
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = random.nextInt(G.V());
+        }
+
+        System.out.printf("V = %d, E = %d, %d sources, best of %d rounds%n", G.V(), G.E(), SOURCES, ROUNDS);
+
+        if (only == null || only.equals("NONE")) {
+            System.out.printf("%-22s bandwidth %8d  %9.1f ms%n", "NONE", VertexReordering.bandwidth(G), time(G, sources));
+        }
+
+        for (VertexReordering.Ordering ordering : VertexReordering.Ordering.values()) {
+            if (only != null && !only.equals(ordering.name())) continue;
+
+            VertexReordering reordering = new VertexReordering(G, ordering);
+            int[] internal = new int[SOURCES];
+
+            for (int i = 0; i < SOURCES; i++) {
+                internal[i] = reordering.toInternal(sources[i]);
+            }
+
+            System.out.printf("%-22s bandwidth %8d  %9.1f ms%n", ordering,
+                    VertexReordering.bandwidth(reordering.graph()), time(reordering.graph(), internal));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.kotopka;
+
+/**
+ * {@code SPAlgorithm} - The single-source shortest-paths algorithms available for solving a digraph.
+ */
+public enum SPAlgorithm {
+
+    /** {@link DijkstraSP}, non-negative edge weights only */
+    DIJKSTRA,
+
+    /** {@link BellmanFordSP}, any edge weights, detects negative cycles */
+    BELLMAN_FORD,
+
+    /** {@link AcyclicSP}, DAGs only, any edge weights */
+    ACYCLIC,
+
+    /** {@link MinPlusSP}, any edge weights, detects negative cycles */
+    MIN_PLUS
+}
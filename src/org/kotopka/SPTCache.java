@@ -0,0 +1,245 @@
+package org.kotopka;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * {@code SPTCache} - Caches shortest-paths trees of one digraph, so that popular sources are solved once instead of
+ * on every request. <br>
+ * Trees are keyed by (graph version, source, algorithm) and stored as {@link CompactSPT}s, about 16 bytes per
+ * vertex. The least recently used trees are evicted when the
+ * total size exceeds the byte budget. When a request arrives for a newer graph version, every tree of an older
+ * version is dropped. <br>
+ * Safe to use from many threads. Solving happens outside the lock, so two threads missing on the same key at the
+ * same time may both solve it.
+ */
+public class SPTCache {
+
+    private static final long ENTRY_OVERHEAD = 48;  // key and map entry, the tree accounts for itself
+
+    private final long byteBudget;
+    private final LinkedHashMap<Key, CompactSPT> trees;
+    private long bytes;
+    private long latestVersion;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private static class Key {
+        final long version;
+        final int source;
+        final SPAlgorithm algorithm;
+
+        Key(long version, int source, SPAlgorithm algorithm) {
+            this.version = version;
+            this.source = source;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+
+            return version == key.version && source == key.source && algorithm == key.algorithm;
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(version, source, algorithm); }
+    }
+
+    /**
+     * {@code SPTCache} Constructor.
+     * @param byteBudget the maximum total size of the cached trees, in bytes
+     */
+    public SPTCache(long byteBudget) {
+        if (byteBudget <= 0) throw new IllegalArgumentException("Byte budget must be positive");
+
+        this.byteBudget = byteBudget;
+        this.trees = new LinkedHashMap<>(16, 0.75f, true);  // access order, i.e. LRU iteration order
+    }
+
+    /**
+     * {@code get()} - Returns the shortest-paths tree from {@code source} in the current version of {@code G},
+     * solving it on a miss.
+     * @param G the dynamic digraph
+     * @param source source vertex
+     * @param algorithm the algorithm to solve with
+     * @return the tree
+     */
+    public CompactSPT get(DynamicDigraph G, int source, SPAlgorithm algorithm) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        DynamicDigraph.Snapshot snapshot = G.snapshot();
+
+        return get(snapshot, snapshot.version(), source, algorithm);
+    }
+
+    /**
+     * {@code get()} - Returns the shortest-paths tree from {@code source} in {@code G}, solving it on a miss.
+     * @param G the digraph, which must not change while it has the given version
+     * @param graphVersion version of {@code G}; a higher version than seen before invalidates all older trees
+     * @param source source vertex
+     * @param algorithm the algorithm to solve with
+     * @return the tree
+     * @throws UnsupportedOperationException if Bellman-Ford or min-plus finds a negative cycle
+     */
+    public CompactSPT get(Digraph G, long graphVersion, int source, SPAlgorithm algorithm) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (algorithm == null) throw new IllegalArgumentException("Algorithm cannot be null");
+        if (source < 0 || source >= G.V()) throw new IllegalArgumentException("Invalid vertex " + source);
+
+        Key key = new Key(graphVersion, source, algorithm);
+
+        synchronized (this) {
+            if (graphVersion > latestVersion) invalidateBefore(graphVersion);
+
+            CompactSPT tree = trees.get(key);
+
+            if (tree != null) {
+                hits++;
+                return tree;
+            }
+
+            misses++;
+        }
+
+        CompactSPT tree = solve(G, source, algorithm);
+
+        synchronized (this) {
+            if (graphVersion < latestVersion) return tree;  // graph moved on while solving, don't keep it
+
+            CompactSPT previous = trees.put(key, tree);
+
+            if (previous != null) bytes -= previous.bytes() + ENTRY_OVERHEAD;
+
+            bytes += tree.bytes() + ENTRY_OVERHEAD;
+            evict();
+        }
+
+        return tree;
+    }
+
+    private void evict() {
+        Iterator<CompactSPT> lru = trees.values().iterator();
+
+        while (bytes > byteBudget && lru.hasNext()) {
+            bytes -= lru.next().bytes() + ENTRY_OVERHEAD;
+            lru.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * {@code invalidateBefore()} - Drops all trees computed for a graph version older than {@code version}.
+     * @param version the current graph version
+     */
+    public synchronized void invalidateBefore(long version) {
+        latestVersion = Math.max(latestVersion, version);
+
+        Iterator<Map.Entry<Key, CompactSPT>> entries = trees.entrySet().iterator();
+
+        while (entries.hasNext()) {
+            Map.Entry<Key, CompactSPT> entry = entries.next();
+
+            if (entry.getKey().version < version) {
+                bytes -= entry.getValue().bytes() + ENTRY_OVERHEAD;
+                entries.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * {@code clear()} - Drops all cached trees. Metrics are kept.
+     */
+    public synchronized void clear() {
+        invalidations += trees.size();
+        trees.clear();
+        bytes = 0;
+    }
+
+    private static CompactSPT solve(Digraph G, int source, SPAlgorithm algorithm) {
+        switch (algorithm) {
+            case DIJKSTRA: {
+                // a matrix is only used if G already is one, converting would cost O(V^2) memory on every miss
+                if (G instanceof DenseDigraph) {
+                    DenseDijkstraSP sp = new DenseDijkstraSP((DenseDigraph) G, source);
+                    return new CompactSPT(G, source, sp::edgeTo, sp::distTo);
+                }
+
+                DijkstraSP sp = new DijkstraSP(G, source);
+                return new CompactSPT(G, source, sp::edgeTo, sp::distTo);
+            }
+            case BELLMAN_FORD: {
+                BellmanFordSP sp = new BellmanFordSP(G, source);
+                if (sp.hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
+                return new CompactSPT(G, source, sp::edgeTo, sp::distTo);
+            }
+            case MIN_PLUS: {
+                MinPlusSP sp = new MinPlusSP(G, source);
+                if (sp.hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
+                return new CompactSPT(G, source, sp::edgeTo, sp::distTo);
+            }
+            default: {
+                AcyclicSP sp = new AcyclicSP(G, source);
+                return new CompactSPT(G, source, sp::edgeTo, sp::distTo);
+            }
+        }
+    }
+
+    public synchronized long hits() { return hits; }
+
+    public synchronized long misses() { return misses; }
+
+    public synchronized long evictions() { return evictions; }
+
+    public synchronized long invalidations() { return invalidations; }
+
+    public synchronized int size() { return trees.size(); }
+
+    public synchronized long bytes() { return bytes; }
+
+    /**
+     * {@code hitRate()} - Fraction of requests answered from the cache.
+     * @return hit rate between {@code 0.0} and {@code 1.0}, {@code 0.0} before the first request
+     */
+    public synchronized double hitRate() {
+        long requests = hits + misses;
+
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SPTCache[trees=%d, bytes=%d/%d, hits=%d, misses=%d, hit rate=%.3f, evictions=%d, invalidations=%d]",
+                trees.size(), bytes, byteBudget, hits, misses, hitRate(), evictions, invalidations);
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        DynamicDigraph G = new DynamicDigraph(GraphLoader.load(args[0]));
+        SPTCache cache = new SPTCache(20L * (ENTRY_OVERHEAD + 64 + 16L * G.V()));   // room for 20 trees
+        Random random = new Random(3);
+
+        // skewed source popularity: most requests go to a few sources
+        for (int i = 0; i < 10_000; i++) {
+            int source = (int) Math.min(G.V() - 1, Math.abs(random.nextGaussian()) * 10);
+            cache.get(G, source, SPAlgorithm.DIJKSTRA);
+
+            if (i % 2500 == 2499) G.updateWeights(new int[] { 0 }, new double[] { random.nextDouble() });
+        }
+
+        System.out.println(cache);
+    }
+}
@@ -0,0 +1,39 @@
+package org.kotopka;
+
+/**
+ * {@code ShortestPathTree} - Single-source shortest paths as computed by any of the solvers, so that callers of
+ * {@link ShortestPaths#solve(Digraph, int)} need not know which one was picked.
+ */
+public interface ShortestPathTree {
+
+    /**
+     * {@code distTo()} - Length of the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the distance, {@code Double.POSITIVE_INFINITY} if there is no path
+     */
+    double distTo(int v);
+
+    boolean hasPathTo(int v);
+
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    DirectedEdge edgeTo(int v);
+
+    /**
+     * {@code pathTo()} - The edges of the shortest path from the source to {@code v}, in order.
+     * @param v the destination vertex
+     * @return the path; {@code null} or empty if there is none, depending on the solver
+     * @throws UnsupportedOperationException if a negative cycle was found
+     */
+    Iterable<DirectedEdge> pathTo(int v);
+
+    /**
+     * {@code hasNegativeCycle()} - Returns {@code true} if a negative cycle is reachable from the source, in which
+     * case no shortest paths exist. Only solvers that allow negative weights can find one.
+     * @return boolean {@code true} if there is a negative cycle, {@code false} otherwise
+     */
+    default boolean hasNegativeCycle() { return false; }
+}
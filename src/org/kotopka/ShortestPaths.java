@@ -0,0 +1,84 @@
+package org.kotopka;
+
+/**
+ * {@code ShortestPaths} - Picks the fastest correct single-source solver from properties of the digraph: <br>
+ * - DAG: {@link AcyclicSP}, relaxation in topological order, any weights; <br>
+ * - negative weights: {@link ComponentBellmanFordSP}, Bellman-Ford one strong component at a time; <br>
+ * - all weights equal: breadth-first search, by {@link DijkstraSP} below {@value DijkstraSP#BFS_CUTOFF} edges, else
+ * {@link BreadthFirstSP}; <br>
+ * - integer weights 0 and 1: {@link ZeroOneBFS}; <br>
+ * - integer weights up to {@value #DIAL_MAX_WEIGHT}: {@link DialSP}; <br>
+ * - otherwise Dijkstra, {@link DenseDijkstraSP} if the digraph is a {@link DenseDigraph} already, else
+ * {@link DijkstraSP}. Other digraphs are never converted to a matrix, which would take {@code 8V^2} bytes per call.
+ * <br>
+ * {@link EdgeWeightedDigraph} keeps these properties up to date as edges are added, {@link FrozenDigraph} computes
+ * them once and {@link DynamicDAG} is acyclic by construction, so choosing is cheap for them; other digraphs are
+ * scanned on every call.
+ */
+public class ShortestPaths {
+
+    static final int DIAL_MAX_WEIGHT = 1 << 10;
+
+    /**
+     * {@code solve()} - Computes the shortest-paths tree from {@code source} with the solver best suited to {@code G}.
+     * @param G the digraph
+     * @param source source vertex
+     * @return the shortest-paths tree, check {@code hasNegativeCycle()} if {@code G} may have negative weights
+     */
+    public static ShortestPathTree solve(Digraph G, int source) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (source < 0 || source >= G.V()) throw new IllegalArgumentException("Invalid vertex " + source);
+
+        if (G.isDAG()) return new AcyclicSP(G, source);
+
+        double min = G.minWeight();
+        double max = G.maxWeight();
+
+        if (min < 0.0) return new ComponentBellmanFordSP(G, source);
+        if (min == max) {
+            return G.E() < DijkstraSP.BFS_CUTOFF ? new DijkstraSP(G, source) : new BreadthFirstSP(G, source);
+        }
+
+        if (G.hasIntegerWeights()) {
+            if (max == 1.0) return new ZeroOneBFS(G, source);
+            if (max <= DIAL_MAX_WEIGHT) return new DialSP(G, source);
+        }
+
+        if (G instanceof DenseDigraph) return new DenseDijkstraSP((DenseDigraph) G, source);
+
+        return new DijkstraSP(G, source);
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        int source = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+
+        long start = System.nanoTime();
+        ShortestPathTree sp = solve(ewd, source);
+        long time = System.nanoTime() - start;
+
+        System.out.printf("%s: %d us%n", sp.getClass().getSimpleName(), time / 1000);
+
+        if (sp.hasNegativeCycle()) {
+            System.out.println("Negative cycle exists");
+            return;
+        }
+
+        for (int v = 0; v < Math.min(ewd.V(), 10); v++) {
+            System.out.printf("%d to %d (%.2f):", source, v, sp.distTo(v));
+
+            if (sp.hasPathTo(v)) {
+                for (DirectedEdge e : sp.pathTo(v)) System.out.print("  " + e);
+            } else {
+                System.out.print("  no path");
+            }
+
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package org.kotopka;
+
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * {@code StreamingCPM} - Critical Path Method for very large job files (millions of jobs). Reads the same format as
+ * {@link CPM}. <br>
+ * Compared to {@code CPM} it: <br>
+ * - streams the input through a {@link FastReader} instead of {@code Scanner.nextLine()} and {@code split()}; <br>
+ * - stores the job DAG as two primitive CSR arrays (successors and predecessors) with one vertex per job; the source
+ * and sink are implicit (a job without predecessors starts at 0, the finish time is the latest job end) instead of
+ * {@code 2n + 2} vertices and {@code 3n} extra zero-weight {@code DirectedEdge}s; <br>
+ * - computes start times level by level, every level in parallel, each job pulling from its predecessors so that no
+ * two threads write the same entry; <br>
+ * - writes the results through one large buffer instead of a {@code printf} per job.
+ */
+public class StreamingCPM {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 12;  // smaller levels are not worth splitting
+    private static final byte[] FINISH = "Finish time: ".getBytes();
+
+    private final int n;
+    private final double[] duration;
+    private final int[] predStart;
+    private final int[] pred;
+    private final double[] startTime;
+    private final double finishTime;
+
+    /**
+     * {@code StreamingCPM} Constructor. Reads a job file and computes the schedule.
+     * @param in job file: the number of jobs, then per job a line with its duration and the jobs it must precede
+     * @throws IllegalArgumentException if the precedence constraints contain a cycle
+     */
+    public StreamingCPM(InputStream in) {
+        FastReader reader = new FastReader(in);
+
+        this.n = reader.nextInt();
+        reader.nextLine();
+
+        this.duration = new double[n];
+
+        int[] succStart = new int[n + 1];
+        int[] succ = new int[Math.max(16, n)];
+        int m = 0;
+
+        for (int i = 0; i < n; i++) {
+            duration[i] = reader.nextDouble();
+
+            while (reader.hasNextOnLine()) {
+                if (m == succ.length) succ = Arrays.copyOf(succ, m << 1);
+
+                int successor = reader.nextInt();
+
+                if (successor < 0 || successor >= n) throw new IllegalArgumentException("Invalid job " + successor);
+
+                succ[m++] = successor;
+            }
+
+            succStart[i + 1] = m;
+            reader.nextLine();
+        }
+
+        // predecessors in CSR form, by counting sort over the successor lists
+        this.predStart = new int[n + 1];
+        this.pred = new int[m];
+
+        for (int e = 0; e < m; e++) {
+            predStart[succ[e] + 1]++;
+        }
+
+        for (int j = 0; j < n; j++) {
+            predStart[j + 1] += predStart[j];
+        }
+
+        int[] next = Arrays.copyOf(predStart, n);
+
+        for (int i = 0; i < n; i++) {
+            for (int e = succStart[i]; e < succStart[i + 1]; e++) {
+                pred[next[succ[e]]++] = i;
+            }
+        }
+
+        // Kahn's algorithm, recording where each level of the topological order ends
+        int[] indegree = new int[n];
+        int[] order = new int[n];
+        int[] levelEnd = new int[n + 1];
+        int levels = 0;
+        int tail = 0;
+
+        for (int j = 0; j < n; j++) {
+            indegree[j] = predStart[j + 1] - predStart[j];
+
+            if (indegree[j] == 0) order[tail++] = j;
+        }
+
+        for (int head = 0; head < tail; ) {
+            int end = tail;
+
+            for (; head < end; head++) {
+                int i = order[head];
+
+                for (int e = succStart[i]; e < succStart[i + 1]; e++) {
+                    if (--indegree[succ[e]] == 0) order[tail++] = succ[e];
+                }
+            }
+
+            levelEnd[levels++] = end;
+        }
+
+        if (tail != n) throw new IllegalArgumentException("Precedence constraints contain a cycle");
+
+        this.startTime = new double[n];
+
+        for (int level = 0, lo = 0; level < levels; lo = levelEnd[level++]) {
+            int hi = levelEnd[level];
+
+            if (hi - lo >= PARALLEL_THRESHOLD) {
+                IntStream.range(lo, hi).parallel().forEach(k -> schedule(order[k]));
+            } else {
+                for (int k = lo; k < hi; k++) schedule(order[k]);
+            }
+        }
+
+        this.finishTime = IntStream.range(0, n).parallel().mapToDouble(j -> startTime[j] + duration[j]).max().orElse(0.0);
+    }
+
+    // all predecessors of j are in earlier levels, so their start times are final
+    private void schedule(int j) {
+        double start = 0.0;
+
+        for (int e = predStart[j]; e < predStart[j + 1]; e++) {
+            int i = pred[e];
+            start = Math.max(start, startTime[i] + duration[i]);
+        }
+
+        startTime[j] = start;
+    }
+
+    public int jobs() { return n; }
+
+    public double startTime(int job) {
+        if (job < 0 || job >= n) throw new IllegalArgumentException("Invalid job " + job);
+
+        return startTime[job];
+    }
+
+    public double finishTime() { return finishTime; }
+
+    /**
+     * {@code write()} - Writes the start times in the same format as {@code CPM}, {@code "%4d: %5.1f"} per job and
+     * the finish time, formatting into one large byte buffer that is flushed in bulk.
+     * @param out the stream to write to, not closed
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        byte[] buffer = new byte[1 << 16];
+        int length = 0;
+
+        for (int j = 0; j <= n; j++) {
+            if (length > buffer.length - 64) {
+                out.write(buffer, 0, length);
+                length = 0;
+            }
+
+            if (j < n) {
+                length = appendLong(buffer, length, j, 4);
+                buffer[length++] = ':';
+                buffer[length++] = ' ';
+            } else {
+                for (int i = 0; i < FINISH.length; i++) buffer[length++] = FINISH[i];
+            }
+
+            length = appendOneDecimal(buffer, length, j < n ? startTime[j] : finishTime, 5);
+            buffer[length++] = '\n';
+        }
+
+        out.write(buffer, 0, length);
+        out.flush();
+    }
+
+    // like %<width>.1f for non-negative values, without going through String.format
+    private static int appendOneDecimal(byte[] buffer, int length, double x, int width) {
+        long tenths = Math.round(x * 10);
+
+        length = appendLong(buffer, length, tenths / 10, width - 2);
+        buffer[length++] = '.';
+        buffer[length++] = (byte) ('0' + tenths % 10);
+
+        return length;
+    }
+
+    // like %<width>d for non-negative values
+    private static int appendLong(byte[] buffer, int length, long value, int width) {
+        int digits = 1;
+
+        for (long v = value; v >= 10; v /= 10) digits++;
+
+        for (int i = digits; i < width; i++) buffer[length++] = ' ';
+
+        for (int i = length + digits - 1; i >= length; i--, value /= 10) {
+            buffer[i] = (byte) ('0' + value % 10);
+        }
+
+        return length + digits;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+
+        StreamingCPM cpm;
+
+        if (args.length > 0) {
+            try (InputStream in = new FileInputStream(args[0])) {
+                cpm = new StreamingCPM(in);
+            }
+        } else {
+            cpm = new StreamingCPM(System.in);
+        }
+
+        long scheduled = System.nanoTime();
+
+        cpm.write(new BufferedOutputStream(System.out, 1 << 16));
+
+        System.err.printf("%d jobs: read and scheduled in %d ms, written in %d ms%n", cpm.jobs(),
+                (scheduled - start) / 1_000_000, (System.nanoTime() - scheduled) / 1_000_000);
+    }
+}
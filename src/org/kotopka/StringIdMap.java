@@ -0,0 +1,136 @@
+package org.kotopka;
+
+import java.util.Arrays;
+
+/**
+ * {@code StringIdMap} - {@link VertexIdMap} for arbitrary string ids. Open addressing with linear probing; the
+ * table only holds {@code int}s (the dense id and the cached hash), the strings themselves are stored once, in the
+ * dense id -> external id array that is also used for path output.
+ */
+public class StringIdMap implements VertexIdMap {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final double MAX_LOAD = 0.75;
+
+    private int[] ids;          // slot -> dense id + 1, 0 marks an empty slot
+    private int[] hashes;       // slot -> hash of the key, checked before String.equals()
+    private String[] external;  // dense id -> external id
+    private int size;
+
+    /**
+     * {@code StringIdMap} Constructor. Creates an empty map.
+     */
+    public StringIdMap() {
+        this(16);
+    }
+
+    /**
+     * {@code StringIdMap} Constructor. Creates an empty map sized for {@code expectedSize} ids.
+     * @param expectedSize the expected number of distinct ids
+     */
+    public StringIdMap(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+
+        long needed = (long) Math.ceil(expectedSize / MAX_LOAD) + 1;
+        int capacity = 16;
+
+        while (capacity < needed) {
+            if (capacity == MAX_CAPACITY) throw new IllegalStateException("Too many ids");
+            capacity <<= 1;
+        }
+
+        this.ids = new int[capacity];
+        this.hashes = new int[capacity];
+        this.external = new String[Math.max(expectedSize, 16)];
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+
+        return h ^ (h >>> 16);
+    }
+
+    private int slot(String key, int h) {
+        int mask = ids.length - 1;
+        int i = h & mask;
+
+        while (ids[i] != 0 && (hashes[i] != h || !external[ids[i] - 1].equals(key))) {
+            i = (i + 1) & mask;
+        }
+
+        return i;
+    }
+
+    private void grow() {
+        int[] oldIds = ids;
+        int[] oldHashes = hashes;
+
+        if (oldIds.length == MAX_CAPACITY) throw new IllegalStateException("Too many ids");
+
+        ids = new int[oldIds.length << 1];
+        hashes = new int[oldIds.length << 1];
+
+        int mask = ids.length - 1;
+
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != 0) {
+                // keys are distinct, so only an empty slot needs to be found
+                int j = oldHashes[i] & mask;
+
+                while (ids[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+
+                ids[j] = oldIds[i];
+                hashes[j] = oldHashes[i];
+            }
+        }
+    }
+
+    @Override
+    public int intern(String externalId) {
+        if (externalId == null) throw new IllegalArgumentException("Id cannot be null");
+
+        int h = hash(externalId);
+        int i = slot(externalId, h);
+
+        if (ids[i] != 0) return ids[i] - 1;
+
+        if (size + 1 > ids.length * MAX_LOAD) {
+            grow();
+            i = slot(externalId, h);
+        }
+
+        if (size == external.length) {
+            external = Arrays.copyOf(external, (int) Math.min((long) size << 1, Integer.MAX_VALUE - 8));
+        }
+
+        ids[i] = size + 1;
+        hashes[i] = h;
+        external[size] = externalId;
+
+        return size++;
+    }
+
+    /**
+     * {@code id()} - Looks up the dense id of {@code externalId} without assigning one.
+     * @param externalId external id
+     * @return dense vertex id, or {@code -1} if it has not been interned
+     */
+    public int id(String externalId) {
+        if (externalId == null) throw new IllegalArgumentException("Id cannot be null");
+
+        return ids[slot(externalId, hash(externalId))] - 1;
+    }
+
+    @Override
+    public String externalId(int v) {
+        if (v < 0 || v >= size) throw new IllegalArgumentException("Invalid vertex " + v);
+
+        return external[v];
+    }
+
+    @Override
+    public int size() { return size; }
+
+}
@@ -0,0 +1,22 @@
+package org.kotopka;
+
+/**
+ * {@code StrongComponents} - Partition of a digraph into strongly connected components, numbered {@code 0} to
+ * {@code count() - 1} in topological order of the condensation: every edge between two components goes from the
+ * lower to the higher id.
+ */
+public interface StrongComponents {
+
+    int count();
+
+    /**
+     * {@code id()} - The component of {@code v}.
+     * @param v the vertex
+     * @return component id, between {@code 0} and {@code count() - 1}
+     */
+    int id(int v);
+
+    default boolean stronglyConnected(int v, int w) {
+        return id(v) == id(w);
+    }
+}
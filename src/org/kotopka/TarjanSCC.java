@@ -0,0 +1,119 @@
+package org.kotopka;
+
+/**
+ * {@code TarjanSCC} - Strongly connected components by Tarjan's algorithm, with the depth-first search run on an
+ * explicit stack of (vertex, next edge) frames so that long paths cannot overflow the call stack. <br>
+ * Tarjan's algorithm completes the components in reverse topological order of the condensation; the ids are flipped
+ * at the end to give the topological numbering of {@link StrongComponents}.
+ */
+public class TarjanSCC implements StrongComponents {
+
+    private final int[] id;
+    private int count;
+
+    public TarjanSCC(Digraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        CompactDigraph graph = CompactDigraph.of(G);
+        int V = graph.V();
+
+        this.id = new int[V];
+
+        int[] index = new int[V];   // DFS preorder number + 1, 0 if unvisited
+        int[] low = new int[V];
+        boolean[] onStack = new boolean[V];
+        int[] stack = new int[V];   // vertices of components not completed yet
+        int[] frame = new int[V];   // DFS path
+        int[] cursor = new int[V];  // next edge of each frame
+        int top = 0;
+        int counter = 0;
+
+        for (int s = 0; s < V; s++) {
+            if (index[s] != 0) continue;
+
+            int depth = 0;
+
+            index[s] = low[s] = ++counter;
+            stack[top++] = s;
+            onStack[s] = true;
+            frame[depth] = s;
+            cursor[depth++] = graph.start(s);
+
+            while (depth > 0) {
+                int v = frame[depth - 1];
+                int e = cursor[depth - 1];
+
+                if (e < graph.end(v)) {
+                    int w = graph.to(e);
+
+                    cursor[depth - 1]++;
+
+                    if (index[w] == 0) {
+                        index[w] = low[w] = ++counter;
+                        stack[top++] = w;
+                        onStack[w] = true;
+                        frame[depth] = w;
+                        cursor[depth++] = graph.start(w);
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+
+                    continue;
+                }
+
+                depth--;
+
+                // v is the root of a component, everything above it on the stack belongs to it
+                if (low[v] == index[v]) {
+                    int w;
+
+                    do {
+                        w = stack[--top];
+                        onStack[w] = false;
+                        id[w] = count;
+                    } while (w != v);
+
+                    count++;
+                }
+
+                if (depth > 0) {
+                    int parent = frame[depth - 1];
+
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+
+        for (int v = 0; v < V; v++) id[v] = count - 1 - id[v];
+    }
+
+    @Override
+    public int count() { return count; }
+
+    @Override
+    public int id(int v) {
+        if (v < 0 || v >= id.length) throw new IllegalArgumentException("Invalid vertex " + v);
+
+        return id[v];
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        TarjanSCC scc = new TarjanSCC(ewd);
+
+        System.out.println(scc.count() + " strong components");
+
+        Condensation condensation = new Condensation(ewd, scc);
+
+        for (int c = 0; c < scc.count(); c++) {
+            for (int v : condensation.members(c)) System.out.print(v + " ");
+
+            System.out.println();
+        }
+    }
+}
@@ -37,6 +37,65 @@ public class Topological {
         reversePostOrder.push(v);
     }
 
+    /**
+     * {@code orderOf()} - Topological order of {@code G}, reusing the cached order of a {@link FrozenDigraph} or
+     * {@link EdgeWeightedDigraph}, or the maintained order of a {@link DynamicDAG}, instead of running a new
+     * depth-first search.
+     * @param G the digraph
+     * @return the vertices in topological order, or {@code null} if {@code G} is null or not a DAG
+     */
+    public static Iterable<Integer> orderOf(Digraph G) {
+        if (G == null) return null;
+
+        if (G instanceof FrozenDigraph) {
+            FrozenDigraph frozen = (FrozenDigraph) G;
+
+            return frozen.isDAG() ? frozen.order() : null;
+        }
+
+        if (G instanceof DynamicDAG) return ((DynamicDAG) G).order();
+
+        if (G instanceof EdgeWeightedDigraph) {
+            EdgeWeightedDigraph ewd = (EdgeWeightedDigraph) G;
+
+            return ewd.isDAG() ? ewd.order() : null;
+        }
+
+        Topological topological = new Topological(G);
+
+        return topological.hasOrder() ? topological.order() : null;
+    }
+
+    // Kahn's algorithm; iterative, so deep DAGs cannot overflow the stack. Empty if G has a cycle
+    static int[] kahn(Digraph G) {
+        int V = G.V();
+        int[] indegree = new int[V];
+
+        for (int v = 0; v < V; v++) {
+            for (DirectedEdge e : G.adj(v)) indegree[e.to()]++;
+        }
+
+        int[] order = new int[V];
+        int head = 0;
+        int tail = 0;
+
+        for (int v = 0; v < V; v++) {
+            if (indegree[v] == 0) order[tail++] = v;
+        }
+
+        while (head < tail) {
+            int v = order[head++];
+
+            for (DirectedEdge e : G.adj(v)) {
+                int w = e.to();
+
+                if (--indegree[w] == 0) order[tail++] = w;
+            }
+        }
+
+        return tail == V ? order : new int[0];
+    }
+
     public boolean hasOrder() { return isDAG; }
 
     public Iterable<Integer> order() { return reversePostOrder; }
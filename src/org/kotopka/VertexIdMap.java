@@ -0,0 +1,28 @@
+package org.kotopka;
+
+/**
+ * {@code VertexIdMap} - Maps external vertex ids, as found in real-world data files, to the dense {@code 0..V-1}
+ * vertex ids used by the digraph types, and back again.
+ */
+public interface VertexIdMap {
+
+    /**
+     * {@code intern()} - Returns the dense id of an external id, assigning the next free id if it is new.
+     * @param externalId the external id as it appears in the input
+     * @return dense vertex id
+     */
+    int intern(String externalId);
+
+    /**
+     * {@code externalId()} - The external id of a dense vertex id.
+     * @param v dense vertex id
+     * @return the external id
+     */
+    String externalId(int v);
+
+    /**
+     * {@code size()} - The number of distinct ids interned so far, i.e. the number of vertices.
+     * @return number of ids
+     */
+    int size();
+}
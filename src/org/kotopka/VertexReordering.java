@@ -0,0 +1,271 @@
+package org.kotopka;
+
+import java.util.Arrays;
+
+/**
+ * {@code VertexReordering} - Renumbers the vertices of a digraph so that vertices which are close in the graph are
+ * also close in memory. Solvers index their {@code distTo[]}/{@code edgeTo[]} arrays by vertex, so a locality
+ * preserving numbering means fewer cache misses while relaxing edges. <br>
+ * The permutation is kept so that callers can keep working with the original ("external") vertex ids.
+ */
+public class VertexReordering {
+
+    /**
+     * {@code Ordering} - The available vertex numbering strategies.
+     */
+    public enum Ordering {
+        /** breadth-first order over the underlying undirected graph */
+        BFS,
+        /** reverse Cuthill-McKee: BFS visiting neighbours by increasing degree, then reversed */
+        REVERSE_CUTHILL_MCKEE,
+        /** hub-first: vertices sorted by decreasing total degree */
+        DEGREE
+    }
+
+    private final int[] oldToNew;
+    private final int[] newToOld;
+    private final EdgeWeightedDigraph graph;
+
+    /**
+     * {@code VertexReordering} Constructor. Computes a new vertex numbering for {@code G} and builds the
+     * renumbered digraph.
+     * @param G the digraph to be renumbered, it is not modified
+     * @param ordering the numbering strategy to use
+     */
+    public VertexReordering(Digraph G, Ordering ordering) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (ordering == null) throw new IllegalArgumentException("Ordering cannot be null");
+
+        int V = G.V();
+
+        // undirected view of G in CSR form, used by all orderings
+        int[] degree = new int[V];
+
+        for (DirectedEdge e : G.edges()) {
+            degree[e.from()]++;
+            degree[e.to()]++;
+        }
+
+        int[] start = new int[V + 1];
+
+        for (int v = 0; v < V; v++) {
+            start[v + 1] = start[v] + degree[v];
+        }
+
+        int[] neighbours = new int[start[V]];
+        int[] next = Arrays.copyOf(start, V);
+
+        for (DirectedEdge e : G.edges()) {
+            neighbours[next[e.from()]++] = e.to();
+            neighbours[next[e.to()]++] = e.from();
+        }
+
+        switch (ordering) {
+            case BFS:
+                this.newToOld = breadthFirst(V, start, neighbours, degree, false);
+                break;
+            case REVERSE_CUTHILL_MCKEE:
+                this.newToOld = breadthFirst(V, start, neighbours, degree, true);
+                reverse(newToOld);
+                break;
+            default:
+                this.newToOld = byDegree(V, degree);
+                break;
+        }
+
+        this.oldToNew = new int[V];
+
+        for (int i = 0; i < V; i++) {
+            oldToNew[newToOld[i]] = i;
+        }
+
+        this.graph = new EdgeWeightedDigraph(V);
+
+        // add edges highest vertex first; Bag iterates in LIFO order so adj(v) lists neighbours by increasing id
+        for (int i = V - 1; i >= 0; i--) {
+            Stack<DirectedEdge> relabeled = new Stack<>();
+
+            for (DirectedEdge e : G.adj(newToOld[i])) {
+                relabeled.push(new DirectedEdge(i, oldToNew[e.to()], e.weight()));
+            }
+
+            for (DirectedEdge e : sortedByHead(relabeled)) {
+                graph.addEdge(e);
+            }
+        }
+    }
+
+    private static int[] breadthFirst(int V, int[] start, int[] neighbours, int[] degree, boolean byDegree) {
+        int[] order = new int[V];
+        boolean[] marked = new boolean[V];
+        int head = 0;
+        int tail = 0;
+
+        // roots are picked by increasing degree, the usual pseudo-peripheral heuristic for Cuthill-McKee
+        int[] roots = byDegree ? byDegree(V, degree) : null;
+
+        for (int r = 0; r < V; r++) {
+            int root = byDegree ? roots[V - 1 - r] : r;
+
+            if (marked[root]) continue;
+
+            marked[root] = true;
+            order[tail++] = root;
+
+            while (head < tail) {
+                int v = order[head++];
+                int first = tail;
+
+                for (int i = start[v]; i < start[v + 1]; i++) {
+                    int w = neighbours[i];
+
+                    if (!marked[w]) {
+                        marked[w] = true;
+                        order[tail++] = w;
+                    }
+                }
+
+                if (byDegree) sortByDegree(order, first, tail, degree);
+            }
+        }
+
+        return order;
+    }
+
+    private static int[] byDegree(int V, int[] degree) {
+        Integer[] vertices = new Integer[V];
+
+        for (int v = 0; v < V; v++) {
+            vertices[v] = v;
+        }
+
+        Arrays.sort(vertices, (a, b) -> degree[b] != degree[a] ? Integer.compare(degree[b], degree[a]) : Integer.compare(a, b));
+
+        int[] order = new int[V];
+
+        for (int i = 0; i < V; i++) {
+            order[i] = vertices[i];
+        }
+
+        return order;
+    }
+
+    private static void sortByDegree(int[] a, int lo, int hi, int[] degree) {
+        // insertion sort, the runs are the size of a single adjacency list
+        for (int i = lo + 1; i < hi; i++) {
+            for (int j = i; j > lo && degree[a[j]] < degree[a[j - 1]]; j--) {
+                int temp = a[j];
+                a[j] = a[j - 1];
+                a[j - 1] = temp;
+            }
+        }
+    }
+
+    private static void reverse(int[] a) {
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            int temp = a[i];
+            a[i] = a[j];
+            a[j] = temp;
+        }
+    }
+
+    private static DirectedEdge[] sortedByHead(Stack<DirectedEdge> edges) {
+        DirectedEdge[] a = new DirectedEdge[edges.size()];
+        int i = 0;
+
+        for (DirectedEdge e : edges) {
+            a[i++] = e;
+        }
+
+        // descending, so that the LIFO Bag hands them back in ascending order
+        Arrays.sort(a, (x, y) -> Integer.compare(y.to(), x.to()));
+
+        return a;
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= oldToNew.length) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    /**
+     * {@code graph()} - The renumbered digraph. Its vertices are internal ids.
+     * @return the renumbered edge-weighted digraph
+     */
+    public EdgeWeightedDigraph graph() { return graph; }
+
+    /**
+     * {@code toInternal()} - Maps an original vertex id to its id in the renumbered digraph.
+     * @param v original vertex id
+     * @return the internal vertex id
+     */
+    public int toInternal(int v) {
+        validateVertex(v);
+
+        return oldToNew[v];
+    }
+
+    /**
+     * {@code toExternal()} - Maps a vertex id of the renumbered digraph back to the original id.
+     * @param v internal vertex id
+     * @return the original vertex id
+     */
+    public int toExternal(int v) {
+        validateVertex(v);
+
+        return newToOld[v];
+    }
+
+    /**
+     * {@code toExternal()} - Maps an edge of the renumbered digraph back to the original vertex ids.
+     * @param e edge of the renumbered digraph
+     * @return an equivalent edge using the original vertex ids
+     */
+    public DirectedEdge toExternal(DirectedEdge e) {
+        if (e == null) throw new IllegalArgumentException("DirectedEdge argument is null");
+
+        return new DirectedEdge(toExternal(e.from()), toExternal(e.to()), e.weight());
+    }
+
+    /**
+     * {@code bandwidth()} - The largest difference between the ids of two adjacent vertices in a digraph. Lower is
+     * better for locality; useful to compare orderings.
+     * @param G the digraph
+     * @return the bandwidth of {@code G}
+     */
+    public static int bandwidth(Digraph G) {
+        int bandwidth = 0;
+
+        for (DirectedEdge e : G.edges()) {
+            bandwidth = Math.max(bandwidth, Math.abs(e.from() - e.to()));
+        }
+
+        return bandwidth;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: VertexReordering <graph file> <BFS|REVERSE_CUTHILL_MCKEE|DEGREE>");
+            System.exit(-1);
+        }
+
+        EdgeWeightedDigraph ewd = GraphLoader.load(args[0]);
+        VertexReordering reordering = new VertexReordering(ewd, Ordering.valueOf(args[1]));
+
+        System.out.println("bandwidth before: " + bandwidth(ewd));
+        System.out.println("bandwidth after:  " + bandwidth(reordering.graph()));
+
+        int source = 0;
+        int destination = ewd.V() - 1;
+        DijkstraSP sp = new DijkstraSP(reordering.graph(), reordering.toInternal(source));
+        int target = reordering.toInternal(destination);
+
+        if (sp.hasPathTo(target)) {
+            System.out.println("distTo " + destination + " " + sp.distTo(target));
+            for (DirectedEdge e : sp.pathTo(target)) {
+                System.out.println(reordering.toExternal(e));
+            }
+        } else {
+            System.out.println("No path to " + destination);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.kotopka;
+
+import java.util.Arrays;
+
+/**
+ * {@code ZeroOneBFS} - Shortest paths for digraphs with only two edge weights, {@code 0} and some {@code c > 0}
+ * (0-1 BFS): vertices reached over a weight-{@code 0} edge go to the front of a deque, over a weight-{@code c} edge to
+ * the back, so the deque holds at most two distinct distances in order and takes the place of Dijkstra's priority
+ * queue at {@code O(1)} per operation. <br>
+ * A vertex may be queued once per improvement; it is expanded only the first time it is taken off the deque.
+ */
+public class ZeroOneBFS implements ShortestPathTree {
+
+    private final int V;
+    private final double[] distTo;
+    private final DirectedEdge[] edgeTo;
+
+    /**
+     * {@code ZeroOneBFS} Constructor.
+     * @param G the digraph, with edge weights {@code 0} and one positive value
+     * @param source source vertex
+     */
+    public ZeroOneBFS(Digraph G, int source) {
+        if (G == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        this.V = G.V();
+
+        validateVertex(source);
+
+        double c = 0.0;
+
+        for (int v = 0; v < V; v++) {
+            for (DirectedEdge e : G.adj(v)) {
+                if (e.weight() == 0.0 || e.weight() == c) continue;
+                if (c != 0.0 || !(e.weight() > 0.0)) throw new IllegalArgumentException("Invalid 0-c edge weight " + e.weight());
+
+                c = e.weight();
+            }
+        }
+
+        this.distTo = new double[V];
+        this.edgeTo = new DirectedEdge[V];
+
+        boolean[] done = new boolean[V];
+        IntDeque deque = new IntDeque(V);
+
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+
+        distTo[source] = 0.0;
+        deque.addFirst(source);
+
+        while (!deque.isEmpty()) {
+            int v = deque.removeFirst();
+
+            if (done[v]) continue;
+
+            done[v] = true;
+
+            for (DirectedEdge e : G.adj(v)) {
+                int w = e.to();
+                double pathWeight = distTo[v] + e.weight();
+
+                if (pathWeight < distTo[w]) {
+                    distTo[w] = pathWeight;
+                    edgeTo[w] = e;
+
+                    if (e.weight() == 0.0) deque.addFirst(w);
+                    else deque.addLast(w);
+                }
+            }
+        }
+    }
+
+    // growable ring buffer of ints
+    private static class IntDeque {
+
+        private int[] items;
+        private int head;
+        private int size;
+
+        IntDeque(int capacity) {
+            this.items = new int[Math.max(capacity, 2)];
+        }
+
+        boolean isEmpty() { return size == 0; }
+
+        void addFirst(int v) {
+            if (size == items.length) grow();
+
+            head = (head - 1 + items.length) % items.length;
+            items[head] = v;
+            size++;
+        }
+
+        void addLast(int v) {
+            if (size == items.length) grow();
+
+            items[(head + size) % items.length] = v;
+            size++;
+        }
+
+        int removeFirst() {
+            int v = items[head];
+
+            head = (head + 1) % items.length;
+            size--;
+
+            return v;
+        }
+
+        private void grow() {
+            int[] copy = new int[2 * items.length];
+
+            for (int i = 0; i < size; i++) copy[i] = items[(head + i) % items.length];
+
+            items = copy;
+            head = 0;
+        }
+    }
+
+    private void validateVertex(int vertex) {
+        if (vertex < 0 || vertex >= V) throw new IllegalArgumentException("Invalid vertex " + vertex);
+    }
+
+    @Override
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    /**
+     * {@code edgeTo()} - The last edge on the shortest path from the source to {@code v}.
+     * @param v the destination vertex
+     * @return the last edge of the path, {@code null} for the source and for unreachable vertices
+     */
+    @Override
+    public DirectedEdge edgeTo(int v) {
+        validateVertex(v);
+
+        return edgeTo[v];
+    }
+
+    @Override
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+
+        if (! hasPathTo(v)) return null;
+
+        Stack<DirectedEdge> path = new Stack<>();
+
+        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+            path.push(e);
+        }
+
+        return path;
+    }
+
+    @Override
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Error: missing commandline argument.");
+            System.exit(-1);
+        }
+
+        // the digraph of the file with weights below the threshold set to 0, the others to 1
+        EdgeWeightedDigraph weighted = GraphLoader.load(args[0]);
+        EdgeWeightedDigraph ewd = new EdgeWeightedDigraph(weighted.V());
+        double threshold = 0.5;
+
+        for (DirectedEdge e : weighted.edges()) {
+            ewd.addEdge(new DirectedEdge(e.from(), e.to(), e.weight() < threshold ? 0.0 : 1.0));
+        }
+
+        for (int r = 0; r < 5; r++) {
+            long start = System.nanoTime();
+            ZeroOneBFS bfs = new ZeroOneBFS(ewd, 0);
+            long bfsTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            MultiSourceDijkstraSP heap = new MultiSourceDijkstraSP(ewd, new int[] { 0 });
+            long heapTime = System.nanoTime() - start;
+
+            double maxDifference = 0.0;
+
+            for (int v = 0; v < ewd.V(); v++) {
+                if (bfs.hasPathTo(v) != heap.hasPathTo(v)) maxDifference = Double.NaN;
+                else if (bfs.hasPathTo(v)) maxDifference = Math.max(maxDifference, Math.abs(bfs.distTo(v) - heap.distTo(v)));
+            }
+
+            System.out.printf("ZeroOneBFS %6d us, heap Dijkstra %6d us, max difference %.2g%n",
+                    bfsTime / 1000, heapTime / 1000, maxDifference);
+        }
+    }
+}